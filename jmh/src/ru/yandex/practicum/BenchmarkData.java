@@ -0,0 +1,59 @@
+package ru.yandex.practicum;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Общие данные бенчмарков: доска из size элементов, половина - задачи, остальное - эпики по 9 подзадач.
+// Задачи и подзадачи идут каждый час и длятся 30 минут, вторая половина каждого часа свободна
+final class BenchmarkData {
+    static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 0, 0);
+    static final int SUBTASKS_PER_EPIC = 9;
+
+    final List<Task> tasks = new ArrayList<>();
+    final List<Epic> epics = new ArrayList<>();
+    final List<Subtask> subtasks = new ArrayList<>();
+    // Количество занятых часов, свободные окна для новых задач - в их второй половине
+    int hours;
+
+    private BenchmarkData() {
+    }
+
+    static BenchmarkData fill(TaskManager manager, int size) {
+        BenchmarkData data = new BenchmarkData();
+        int taskCount = size / 2;
+        for (int i = 0; i < taskCount; i++) {
+            data.tasks.add(manager.createTask(new Task("Задача " + i, "Описание задачи " + i,
+                    Duration.ofMinutes(30), data.nextSlot())));
+        }
+        int epicCount = Math.max(1, (size - taskCount) / (SUBTASKS_PER_EPIC + 1));
+        for (int i = 0; i < epicCount; i++) {
+            Epic epic = manager.createEpic(new Epic("Эпик " + i, "Описание эпика " + i));
+            data.epics.add(epic);
+            for (int j = 0; j < SUBTASKS_PER_EPIC; j++) {
+                data.subtasks.add(manager.createSubtask(new Subtask("Подзадача " + j, "Описание подзадачи",
+                        Duration.ofMinutes(30), data.nextSlot(), epic.getId())));
+            }
+        }
+        return data;
+    }
+
+    // Все элементы доски в порядке создания, без менеджера
+    List<Task> all() {
+        List<Task> all = new ArrayList<>(tasks.size() + epics.size() + subtasks.size());
+        all.addAll(tasks);
+        all.addAll(epics);
+        all.addAll(subtasks);
+        return all;
+    }
+
+    // Начало свободного окна во второй половине занятого часа
+    LocalDateTime freeSlot(int index) {
+        return START.plusHours(Math.floorMod(index, hours)).plusMinutes(30);
+    }
+
+    private LocalDateTime nextSlot() {
+        return START.plusHours(hours++);
+    }
+}
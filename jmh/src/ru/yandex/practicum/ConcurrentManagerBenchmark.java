@@ -0,0 +1,72 @@
+package ru.yandex.practicum;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Менеджер для общего доступа под смешанной нагрузкой: чтения по id, обход списка по приоритету
+// и запись с проверкой пересечений. Каждый поток создаёт задачи в своих свободных окнах
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentManagerBenchmark {
+    private static final int SIZE = 10_000;
+
+    private TaskManager manager;
+    private BenchmarkData data;
+    private final AtomicInteger slots = new AtomicInteger();
+
+    @Setup
+    public void setUp() {
+        manager = Managers.getConcurrent();
+        data = BenchmarkData.fill(manager, SIZE);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public Task getTask() {
+        return manager.getTask(data.tasks.get(ThreadLocalRandom.current().nextInt(data.tasks.size())).getId());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public void getPrioritizedTasks(Blackhole blackhole) {
+        int count = 0;
+        for (Task task : manager.getPrioritizedTasks()) {
+            blackhole.consume(task);
+            if (++count == 100) {
+                break;
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public int createAndDeleteTask() {
+        Task task = manager.createTask(new Task("Задача", "Описание", Duration.ofMinutes(15),
+                data.freeSlot(slots.getAndIncrement())));
+        manager.deleteTask(task.getId());
+        return task.getId();
+    }
+}
@@ -0,0 +1,86 @@
+package ru.yandex.practicum;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.StringReader;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Разбор csv-снимка из 10000 строк: TaskCsvReader против прежнего разбора через split и LocalDateTime.parse
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvParseBenchmark {
+    private static final int SIZE = 10_000;
+
+    private String snapshot;
+    private String[] lines;
+
+    @Setup
+    public void setUp() {
+        List<Task> tasks = BenchmarkData.fill(new InMemoryTaskManager(), SIZE).all();
+        StringBuilder builder = new StringBuilder(TaskCsvReader.HEADER).append('\n');
+        lines = new String[tasks.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            lines[i] = tasks.get(i).toString(tasks.get(i));
+            builder.append(lines[i]).append('\n');
+        }
+        snapshot = builder.toString();
+    }
+
+    @Benchmark
+    public void taskCsvReader(Blackhole blackhole) {
+        TaskCsvReader reader = new TaskCsvReader(new StringReader(snapshot));
+        reader.readHeader();
+        Task task;
+        while ((task = reader.next()) != null) {
+            blackhole.consume(task);
+        }
+    }
+
+    @Benchmark
+    public void legacySplit(Blackhole blackhole) {
+        // Строки уже разбиты: прежний код получал их от BufferedReader.readLine
+        for (String line : lines) {
+            blackhole.consume(fromString(line));
+        }
+    }
+
+    // Прежний разбор строки снимка, без поддержки кавычек
+    private static Task fromString(String value) {
+        String[] parts = value.split(",");
+        int id = Integer.parseInt(parts[0]);
+        Duration duration = Duration.ofMinutes(Long.parseLong(parts[5]));
+        LocalDateTime startTime = LocalDateTime.parse(parts[6]);
+
+        Task task = switch (parts[1]) {
+            case "TASK" -> new Task(parts[2], parts[4], duration, startTime);
+            case "EPIC" -> {
+                Epic epic = new Epic(parts[2], parts[4]);
+                epic.setDuration(duration);
+                epic.setStartTime(startTime);
+                yield epic;
+            }
+            case "SUBTASK" -> new Subtask(parts[2], parts[4], duration, startTime, Integer.parseInt(parts[7]));
+            default -> throw new ManagerLoadException("Неверный формат строки: " + value);
+        };
+        task.setId(id);
+        task.setStatus(Status.valueOf(parts[3]));
+        return task;
+    }
+}
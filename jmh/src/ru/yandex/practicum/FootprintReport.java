@@ -0,0 +1,56 @@
+package ru.yandex.practicum;
+
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Объём памяти доски и её хранилищ по графу объектов (JOL). Запуск: ./gradlew :jmh:footprint -Pcount=1000000
+public class FootprintReport {
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        InMemoryTaskManager manager = new InMemoryTaskManager();
+        BenchmarkData.fill(manager, count);
+        // Менеджер хранит свои копии задач, поэтому вычитаются именно они
+        List<Task> tasks = new ArrayList<>();
+        manager.forEachTask(tasks::add);
+        // GraphLayout.subtract сравнивает адреса, а сборка мусора между обходами двигает объекты,
+        // поэтому размер хранилищ без задач считается разностью сумм: все задачи достижимы из хранилища
+        long taskSize = GraphLayout.parseInstance(tasks.toArray()).totalSize();
+        GraphLayout managerLayout = GraphLayout.parseInstance(manager);
+        print("Задачи без менеджера", taskSize, tasks.size());
+        print("Менеджер целиком", managerLayout.totalSize(), tasks.size());
+        print("Индексы и хранилища менеджера", managerLayout.totalSize() - taskSize, tasks.size());
+
+        IntObjectHashMap<Task> intMap = new IntObjectHashMap<>();
+        Map<Integer, Task> boxedMap = new HashMap<>();
+        for (Task task : tasks) {
+            intMap.put(task.getId(), task);
+            boxedMap.put(task.getId(), task);
+        }
+        print("IntObjectHashMap без значений", GraphLayout.parseInstance(intMap).totalSize() - taskSize,
+                tasks.size());
+        print("HashMap<Integer, Task> без значений", GraphLayout.parseInstance(boxedMap).totalSize() - taskSize,
+                tasks.size());
+
+        IntArrayList intList = new IntArrayList();
+        List<Integer> boxedList = new ArrayList<>();
+        for (Task task : tasks) {
+            intList.addInt(task.getId());
+            boxedList.add(task.getId());
+        }
+        print("IntArrayList", GraphLayout.parseInstance(intList).totalSize(), tasks.size());
+        print("ArrayList<Integer>", GraphLayout.parseInstance(boxedList).totalSize(), tasks.size());
+
+        System.out.println();
+        System.out.println(managerLayout.toFootprint());
+    }
+
+    private static void print(String title, long size, int count) {
+        System.out.printf("%-40s %,14d байт %,10.1f байт на задачу%n", title, size, (double) size / count);
+    }
+}
@@ -0,0 +1,62 @@
+package ru.yandex.practicum;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// История просмотров на size задачах: повторный просмотр переносит задачу в конец,
+// getHistory копирует весь список, снимок копируется только после изменений
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HistoryBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private HistoryManager history;
+    private List<Task> tasks;
+    private int counter;
+
+    @Setup
+    public void setUp() {
+        history = Managers.getDefaultHistory();
+        tasks = BenchmarkData.fill(new InMemoryTaskManager(), size).all();
+        for (Task task : tasks) {
+            history.add(task);
+        }
+    }
+
+    @Benchmark
+    public void add() {
+        history.add(tasks.get(Math.floorMod(counter++, tasks.size())));
+    }
+
+    @Benchmark
+    public List<Task> getHistory() {
+        return history.getHistory();
+    }
+
+    @Benchmark
+    public List<Task> getLastViewed10() {
+        return history.getLastViewed(10);
+    }
+
+    @Benchmark
+    public List<Task> getHistorySnapshot() {
+        return history.getHistorySnapshot();
+    }
+}
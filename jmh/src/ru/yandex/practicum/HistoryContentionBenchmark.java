@@ -0,0 +1,68 @@
+package ru.yandex.practicum;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Общая история под нагрузкой: три потока просматривают задачи, один читает историю.
+// Сравнение одного монитора на всё с ConcurrentHistoryManager, где просмотры идут без блокировки
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HistoryContentionBenchmark {
+    public enum Kind {
+        SYNCHRONIZED, CONCURRENT
+    }
+
+    @Param({"SYNCHRONIZED", "CONCURRENT"})
+    public Kind kind;
+
+    @Param({"1000"})
+    public int size;
+
+    private HistoryManager history;
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() {
+        history = switch (kind) {
+            case SYNCHRONIZED -> new SynchronizedHistoryManager(new InMemoryHistoryManager());
+            case CONCURRENT -> new ConcurrentHistoryManager();
+        };
+        tasks = BenchmarkData.fill(new InMemoryTaskManager(), size).all();
+        for (Task task : tasks) {
+            history.add(task);
+        }
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public void add() {
+        history.add(tasks.get(ThreadLocalRandom.current().nextInt(tasks.size())));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public List<Task> getHistory() {
+        return history.getHistorySnapshot();
+    }
+}
@@ -0,0 +1,110 @@
+package ru.yandex.practicum;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Хранилища без упаковки ключей против HashMap<Integer, ?> и ArrayList<Integer>:
+// случайный поиск по id, заполнение и удаление id подзадачи из списка эпика
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntCollectionsBenchmark {
+    @Param({"1000", "100000"})
+    public int size;
+
+    private IntObjectHashMap<String> intMap;
+    private Map<Integer, String> boxedMap;
+    private int[] lookups;
+    private IntArrayList intList;
+    private List<Integer> boxedList;
+    private int counter;
+
+    @Setup
+    public void setUp() {
+        intMap = new IntObjectHashMap<>();
+        boxedMap = new HashMap<>();
+        // Id выдаются подряд, но большие значения не попадают в кеш Integer
+        for (int i = 1; i <= size; i++) {
+            intMap.put(i * 7, "v");
+            boxedMap.put(i * 7, "v");
+        }
+        Random random = new Random(42);
+        lookups = new int[4096];
+        for (int i = 0; i < lookups.length; i++) {
+            lookups[i] = (random.nextInt(size) + 1) * 7;
+        }
+
+        intList = new IntArrayList();
+        boxedList = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            intList.addInt(1000 + i);
+            boxedList.add(1000 + i);
+        }
+    }
+
+    @Benchmark
+    public String intMapGet() {
+        return intMap.get(lookups[counter++ & (lookups.length - 1)]);
+    }
+
+    @Benchmark
+    public String hashMapGet() {
+        return boxedMap.get(lookups[counter++ & (lookups.length - 1)]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public IntObjectHashMap<String> intMapFill() {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+        for (int i = 1; i <= size; i++) {
+            map.put(i * 7, "v");
+        }
+        return map;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Map<Integer, String> hashMapFill() {
+        Map<Integer, String> map = new HashMap<>();
+        for (int i = 1; i <= size; i++) {
+            map.put(i * 7, "v");
+        }
+        return map;
+    }
+
+    // Удаление и возврат id подзадачи в список эпика из 16 подзадач
+    @Benchmark
+    public boolean intListRemoveAdd() {
+        int id = 1000 + (counter++ & 15);
+        boolean removed = intList.removeInt(id);
+        intList.addInt(id);
+        return removed;
+    }
+
+    @Benchmark
+    public boolean arrayListRemoveAdd() {
+        Integer id = 1000 + (counter++ & 15);
+        boolean removed = boxedList.remove(id);
+        boxedList.add(id);
+        return removed;
+    }
+}
@@ -0,0 +1,145 @@
+package ru.yandex.practicum;
+
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Список задач в JSON и обратно: потоковые TaskJsonWriter и TaskJsonReader против Gson.
+// Gson пишет объекты через рефлексию, а читает в дерево JsonElement, из которого задачи собираются вручную
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+    @Param({"1000", "10000"})
+    public int size;
+
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter().nullSafe())
+            .setExclusionStrategies(new ShadowedFieldExclusion())
+            .create();
+    private List<Task> tasks;
+    private byte[] json;
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream(1 << 20);
+
+    @Setup
+    public void setUp() {
+        tasks = BenchmarkData.fill(new InMemoryTaskManager(), size).all();
+        json = TaskJson.toJson(tasks).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int writeStreaming() throws IOException {
+        output.reset();
+        TaskJsonWriter writer = new TaskJsonWriter(output);
+        writer.writeArray(tasks);
+        writer.flush();
+        return output.size();
+    }
+
+    @Benchmark
+    public int writeGson() throws IOException {
+        output.reset();
+        Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        gson.toJson(tasks, writer);
+        writer.flush();
+        return output.size();
+    }
+
+    @Benchmark
+    public void readStreaming(Blackhole blackhole) throws IOException {
+        new TaskJsonReader(new ByteArrayInputStream(json)).readArray(null, blackhole::consume);
+    }
+
+    @Benchmark
+    public void readGson(Blackhole blackhole) {
+        JsonElement root = JsonParser.parseReader(new InputStreamReader(new ByteArrayInputStream(json),
+                StandardCharsets.UTF_8));
+        for (JsonElement element : root.getAsJsonArray()) {
+            blackhole.consume(toTask(element.getAsJsonObject()));
+        }
+    }
+
+    private static Task toTask(JsonObject object) {
+        String name = object.get("name").getAsString();
+        String description = object.get("description").getAsString();
+        Duration duration = Duration.ofMinutes(object.get("duration").getAsLong());
+        JsonElement start = object.get("startTime");
+        LocalDateTime startTime = start.isJsonNull() ? null : LocalDateTime.parse(start.getAsString());
+
+        Task task = switch (TaskType.valueOf(object.get("type").getAsString())) {
+            case TASK -> new Task(name, description, duration, startTime);
+            case EPIC -> new Epic(name, description);
+            case SUBTASK -> new Subtask(name, description, duration, startTime, object.get("epicId").getAsInt());
+        };
+        task.setId(object.get("id").getAsInt());
+        if (!(task instanceof Epic)) {
+            task.setStatus(Status.valueOf(object.get("status").getAsString()));
+        }
+        return task;
+    }
+
+    // Поле endTime эпика скрывает одноимённое поле Task, а Gson не допускает двух полей с одним именем
+    private static class ShadowedFieldExclusion implements ExclusionStrategy {
+        @Override
+        public boolean shouldSkipField(FieldAttributes field) {
+            return field.getDeclaringClass() == Task.class && field.getName().equals("endTime");
+        }
+
+        @Override
+        public boolean shouldSkipClass(Class<?> type) {
+            return false;
+        }
+    }
+
+    // Без адаптера Gson не может читать поля java.time через рефлексию на JDK 17+
+    private static class LocalDateTimeAdapter extends TypeAdapter<LocalDateTime> {
+        @Override
+        public void write(JsonWriter out, LocalDateTime value) throws IOException {
+            out.value(value.toString());
+        }
+
+        @Override
+        public LocalDateTime read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            return LocalDateTime.parse(in.nextString());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ru.yandex.practicum;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Цена метрик: запись в гистограмму и самая дешёвая операция менеджера с обёрткой и без неё
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+    private static final int SIZE = 10_000;
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private TaskManager plain;
+    private TaskManager instrumented;
+    private BenchmarkData data;
+    private int counter;
+
+    @Setup
+    public void setUp() {
+        plain = new InMemoryTaskManager();
+        data = BenchmarkData.fill(plain, SIZE);
+        instrumented = Managers.getInstrumented(plain);
+    }
+
+    @Benchmark
+    public void histogramRecord() {
+        histogram.record(counter++ & 0xFFFFF);
+    }
+
+    @Benchmark
+    public Task getTaskPlain() {
+        return plain.getTask(data.tasks.get(Math.floorMod(counter++, data.tasks.size())).getId());
+    }
+
+    @Benchmark
+    public Task getTaskInstrumented() {
+        return instrumented.getTask(data.tasks.get(Math.floorMod(counter++, data.tasks.size())).getId());
+    }
+}
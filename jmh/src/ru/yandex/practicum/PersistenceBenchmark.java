@@ -0,0 +1,65 @@
+package ru.yandex.practicum;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+// Запись полного снимка доски и загрузка из файла в csv и двоичном формате
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersistenceBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    @Param({".csv", ".kanban"})
+    public String format;
+
+    private File file;
+    private FileBackedTaskManager manager;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("tasks", format).toFile();
+        manager = new FileBackedTaskManager(file);
+        // Доска заполняется в памяти, иначе каждое создание перезаписывало бы файл
+        InMemoryTaskManager source = new InMemoryTaskManager();
+        BenchmarkData.fill(source, size);
+        manager.restore(source.collectAllTasks());
+        manager.compact();
+    }
+
+    @TearDown
+    public void tearDown() {
+        manager.close();
+        file.delete();
+    }
+
+    // Снимок пишется так же, как после каждого изменения в режиме без журнала
+    @Benchmark
+    public void save() {
+        manager.compact();
+    }
+
+    @Benchmark
+    public FileBackedTaskManager loadFromFile() {
+        return FileBackedTaskManager.loadFromFile(file);
+    }
+}
@@ -0,0 +1,81 @@
+package ru.yandex.practicum;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+// Порядок по времени начала: сортировка по кешированным ключам против сравнения LocalDateTime,
+// поиск соседей в TreeSet и проверка пересечения двух задач
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriorityOrderBenchmark {
+    private static final Comparator<Task> BY_START_KEY = Comparator.<Task>comparingLong(Task::getStartKey)
+            .thenComparingInt(Task::getId);
+    private static final Comparator<Task> BY_START_TIME = Comparator.comparing(Task::getStartTime)
+            .thenComparingInt(Task::getId);
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private List<Task> shuffled;
+    private TreeSet<Task> byKey;
+    private Task probe;
+    private int counter;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData data = BenchmarkData.fill(new InMemoryTaskManager(), size);
+        shuffled = new ArrayList<>(data.tasks);
+        shuffled.addAll(data.subtasks);
+        Collections.shuffle(shuffled, new Random(42));
+        byKey = new TreeSet<>(BY_START_KEY);
+        byKey.addAll(shuffled);
+        probe = shuffled.get(0);
+    }
+
+    @Benchmark
+    public List<Task> sortByStartKey() {
+        List<Task> sorted = new ArrayList<>(shuffled);
+        sorted.sort(BY_START_KEY);
+        return sorted;
+    }
+
+    @Benchmark
+    public List<Task> sortByStartTime() {
+        List<Task> sorted = new ArrayList<>(shuffled);
+        sorted.sort(BY_START_TIME);
+        return sorted;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Task treeSetNeighbour() {
+        return byKey.floor(shuffled.get(Math.floorMod(counter++, shuffled.size())));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean crossTasks() {
+        return probe.crossTasks(shuffled.get(Math.floorMod(counter++, shuffled.size())));
+    }
+}
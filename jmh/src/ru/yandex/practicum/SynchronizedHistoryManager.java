@@ -0,0 +1,48 @@
+package ru.yandex.practicum;
+
+import java.util.List;
+
+// Потокобезопасная обёртка над историей: все операции под одним монитором. Нужна только для сравнения
+// с ConcurrentHistoryManager в HistoryContentionBenchmark
+public class SynchronizedHistoryManager implements HistoryManager {
+    private final HistoryManager delegate;
+
+    public SynchronizedHistoryManager(HistoryManager delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public synchronized void add(Task task) {
+        delegate.add(task);
+    }
+
+    @Override
+    public synchronized void remove(int id) {
+        delegate.remove(id);
+    }
+
+    @Override
+    public synchronized List<Task> getHistory() {
+        return delegate.getHistory();
+    }
+
+    @Override
+    public synchronized List<Task> getLastViewed(int count) {
+        return delegate.getLastViewed(count);
+    }
+
+    @Override
+    public synchronized List<Task> getHistoryAfter(int cursorId, int limit) {
+        return delegate.getHistoryAfter(cursorId, limit);
+    }
+
+    @Override
+    public synchronized int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public synchronized List<Task> getHistorySnapshot() {
+        return delegate.getHistorySnapshot();
+    }
+}
@@ -0,0 +1,104 @@
+package ru.yandex.practicum;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Горячие пути InMemoryTaskManager на досках разного размера. Создание сразу откатывается удалением,
+// чтобы размер доски не рос за время замера: время включает проверку пересечений, вставку в индексы
+// и для подзадачи пересчёт эпика
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskManagerBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private InMemoryTaskManager manager;
+    private BenchmarkData data;
+    private int counter;
+
+    @Setup
+    public void setUp() {
+        manager = new InMemoryTaskManager();
+        data = BenchmarkData.fill(manager, size);
+    }
+
+    @Benchmark
+    public int createAndDeleteTask() {
+        Task task = manager.createTask(new Task("Задача", "Описание", Duration.ofMinutes(15),
+                data.freeSlot(counter++)));
+        manager.deleteTask(task.getId());
+        return task.getId();
+    }
+
+    @Benchmark
+    public int createAndDeleteSubtask() {
+        Epic epic = data.epics.get(Math.floorMod(counter, data.epics.size()));
+        Subtask subtask = manager.createSubtask(new Subtask("Подзадача", "Описание", Duration.ofMinutes(15),
+                data.freeSlot(counter++), epic.getId()));
+        manager.deleteSubtask(subtask.getId());
+        return subtask.getId();
+    }
+
+    // Отказ из-за пересечения: поиск в индексе без вставки
+    @Benchmark
+    public boolean rejectOverlappingTask() {
+        Task existing = data.tasks.get(Math.floorMod(counter++, data.tasks.size()));
+        try {
+            manager.createTask(new Task("Задача", "Описание", Duration.ofMinutes(10),
+                    existing.getStartTime().plusMinutes(10)));
+            return false;
+        } catch (TaskOverlapException e) {
+            return true;
+        }
+    }
+
+    @Benchmark
+    public List<Task> getOverlappingTasks() {
+        LocalDateTime from = data.freeSlot(counter++).minusMinutes(45);
+        return manager.getOverlappingTasks(from, from.plusHours(3));
+    }
+
+    // Полный обход списка по приоритету
+    @Benchmark
+    public void getPrioritizedTasks(Blackhole blackhole) {
+        for (Task task : manager.getPrioritizedTasks()) {
+            blackhole.consume(task);
+        }
+    }
+
+    // Первые 10 задач по приоритету: стоимость не должна зависеть от размера доски
+    @Benchmark
+    public void getPrioritizedTasksFirst10(Blackhole blackhole) {
+        Iterator<Task> iterator = manager.getPrioritizedTasks().iterator();
+        for (int i = 0; i < 10 && iterator.hasNext(); i++) {
+            blackhole.consume(iterator.next());
+        }
+    }
+
+    @Benchmark
+    public void updateSubtaskStatus() {
+        Subtask saved = data.subtasks.get(Math.floorMod(counter++, data.subtasks.size()));
+        saved.setStatus(saved.getStatus() == Status.DONE ? Status.NEW : Status.DONE);
+        manager.updateSubtask(saved);
+    }
+}
@@ -0,0 +1,128 @@
+package ru.yandex.practicum;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+// Общая часть обработчиков HTTP API: разбор пути, отправка ответов и перевод исключений менеджера в коды ответа
+public abstract class BaseHttpHandler implements HttpHandler {
+    protected final TaskManager taskManager;
+
+    protected BaseHttpHandler(TaskManager taskManager) {
+        this.taskManager = taskManager;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String[] path = exchange.getRequestURI().getPath().split("/");
+        try {
+            switch (exchange.getRequestMethod()) {
+                case "GET" -> handleGet(exchange, path);
+                case "POST" -> handlePost(exchange, path);
+                case "DELETE" -> handleDelete(exchange, path);
+                default -> sendText(exchange, 405, "Метод не поддерживается");
+            }
+        } catch (TaskOverlapException e) {
+            sendText(exchange, 406, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendText(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            sendText(exchange, 500, "Внутренняя ошибка сервера");
+        }
+        // При IOException обмен не закрывается: сервер обрывает соединение, и клиент не примет
+        // начатый по частям ответ за полный
+        exchange.close();
+    }
+
+    protected void handleGet(HttpExchange exchange, String[] path) throws IOException {
+        sendText(exchange, 405, "Метод не поддерживается");
+    }
+
+    protected void handlePost(HttpExchange exchange, String[] path) throws IOException {
+        sendText(exchange, 405, "Метод не поддерживается");
+    }
+
+    protected void handleDelete(HttpExchange exchange, String[] path) throws IOException {
+        sendText(exchange, 405, "Метод не поддерживается");
+    }
+
+    // ID из сегмента пути /<ресурс>/<id>, NumberFormatException даёт ответ 400
+    protected static int parseId(String segment) {
+        return Integer.parseInt(segment);
+    }
+
+    // Тело запроса разбирается прямо из потока
+    protected static Task readTask(HttpExchange exchange, TaskType type) throws IOException {
+        return new TaskJsonReader(exchange.getRequestBody()).readTask(type);
+    }
+
+    protected static void sendTask(HttpExchange exchange, int code, Task task) throws IOException {
+        sendJson(exchange, code, writer -> writer.writeTask(task));
+    }
+
+    // Списки передаются частями (chunked) прямо по мере обхода, тело целиком в памяти не собирается.
+    // Код 200 к этому моменту уже отправлен, поэтому ошибка посреди записи превращается в IOException
+    // и обрывает соединение, а не завершает тело обрезанным JSON
+    protected static void sendTasks(HttpExchange exchange, TaskJsonWriter.TaskSource tasks) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json;charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        TaskJsonWriter writer = new TaskJsonWriter(exchange.getResponseBody());
+        try {
+            writer.writeArray(tasks);
+        } catch (RuntimeException e) {
+            throw new IOException("Ответ прерван при записи списка задач.", e);
+        }
+        writer.close();
+    }
+
+    // Задачи одного типа из обхода менеджера, без промежуточного списка и без записи в историю
+    protected static TaskJsonWriter.TaskSource tasksOfType(TaskManager taskManager, TaskType type) {
+        return action -> taskManager.forEachTask(task -> {
+            if (task.getType() == type) {
+                action.accept(task);
+            }
+        });
+    }
+
+    // Один объект собирается в байты до отправки заголовков: ошибка при записи даёт ответ 500,
+    // а не оборванное тело после уже отправленного кода
+    private static void sendJson(HttpExchange exchange, int code, JsonBody body) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (TaskJsonWriter writer = new TaskJsonWriter(buffer)) {
+            body.writeTo(writer);
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json;charset=utf-8");
+        exchange.sendResponseHeaders(code, buffer.size());
+        try (OutputStream output = exchange.getResponseBody()) {
+            buffer.writeTo(output);
+        }
+    }
+
+    protected static void sendText(HttpExchange exchange, int code, String text) throws IOException {
+        send(exchange, code, "text/plain;charset=utf-8", text == null ? "" : text);
+    }
+
+    protected static void sendNotFound(HttpExchange exchange) throws IOException {
+        sendText(exchange, 404, "Не найдено");
+    }
+
+    private static void send(HttpExchange exchange, int code, String contentType, String body) throws IOException {
+        byte[] response = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(code, response.length == 0 ? -1 : response.length);
+        if (response.length > 0) {
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(response);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface JsonBody {
+        void writeTo(TaskJsonWriter writer) throws IOException;
+    }
+}
@@ -0,0 +1,203 @@
+package ru.yandex.practicum;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+// История для общего доступа из многих потоков. Просмотр не ждёт блокировку и не пишет в общую очередь:
+// он получает номер из общего счётчика и кладётся в буфер своего потока (буферы разбиты на полосы по ID потока).
+// Упорядоченную историю меняет только тот, кто держит блокировку: он переносит просмотры из всех полос пачкой
+// в порядке номеров. Без блокировки связный список истории не изменить, но поток просмотров берёт её
+// только через tryLock раз в BATCH просмотров или когда разбор отстал на MAX_PENDING.
+// В отличие от буферов чтения в кэшах просмотры не теряются, а порядок номеров и есть порядок просмотров.
+// Удаление и чтение истории сначала разбирают буферы, поэтому видят все завершённые просмотры
+public class ConcurrentHistoryManager implements HistoryManager {
+    private static final int BATCH = 32;
+    private static final int MAX_PENDING = 1024;
+    private static final int STRIPES = stripeCount();
+
+    private final HistoryManager history;
+    // Номер следующего просмотра. Просмотр с меньшим номером начался раньше
+    private final AtomicLong sequence = new AtomicLong();
+    // Полосы создаются при первом просмотре из них: у истории сессии обычно заняты одна-две
+    private final AtomicReferenceArray<Queue<View>> stripes = new AtomicReferenceArray<>(STRIPES);
+    private final ReentrantLock drainLock = new ReentrantLock();
+    // Все просмотры с меньшими номерами уже в истории. Меняется только под блокировкой
+    private volatile long drainedUpTo;
+    // Просмотры, взятые из полос раньше своей очереди; используются только под блокировкой
+    private final List<View> early = new ArrayList<>();
+
+    public ConcurrentHistoryManager() {
+        this(new InMemoryHistoryManager());
+    }
+
+    // history используется только под блокировкой и может быть непотокобезопасной
+    public ConcurrentHistoryManager(HistoryManager history) {
+        this.history = history;
+    }
+
+    @Override
+    public void add(Task task) {
+        long number = sequence.getAndIncrement();
+        stripe().add(new View(number, task));
+
+        long pending = number + 1 - drainedUpTo;
+        if (pending >= MAX_PENDING) {
+            // Буферы не растут без ограничений: при отставании разбора просмотр ждёт блокировку и помогает разбирать
+            drainLock.lock();
+            try {
+                drain();
+            } finally {
+                drainLock.unlock();
+            }
+        } else if (pending >= BATCH && !drainLock.hasQueuedThreads() && drainLock.tryLock()) {
+            // tryLock захватывает блокировку в обход очереди, поэтому при ждущем чтении пачку разберёт оно,
+            // иначе поток просмотров не даст чтению получить блокировку
+            try {
+                drain();
+            } finally {
+                drainLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void remove(int id) {
+        drainLock.lock();
+        try {
+            drain();
+            history.remove(id);
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        drainLock.lock();
+        try {
+            drain();
+            return history.getHistory();
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> getLastViewed(int count) {
+        drainLock.lock();
+        try {
+            drain();
+            return history.getLastViewed(count);
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> getHistoryAfter(int cursorId, int limit) {
+        drainLock.lock();
+        try {
+            drain();
+            return history.getHistoryAfter(cursorId, limit);
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        drainLock.lock();
+        try {
+            drain();
+            return history.size();
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> getHistorySnapshot() {
+        drainLock.lock();
+        try {
+            drain();
+            return history.getHistorySnapshot();
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    // Разбираются все просмотры с номерами меньше взятого в начале разбора: среди них все просмотры,
+    // завершённые до разбора, а при потоке новых просмотров держатель блокировки всё равно выйдет из цикла.
+    // Номер выдаётся до записи в буфер, поэтому недостающие просмотры вот-вот появятся и их нужно дождаться.
+    // Просмотр с большим номером откладывается: иначе он мог бы попасть в историю раньше предыдущего
+    private void drain() {
+        long from = drainedUpTo;
+        long upTo = sequence.get();
+        if (upTo == from) {
+            return;
+        }
+
+        Task[] batch = new Task[(int) (upTo - from)];
+        int collected = 0;
+        for (int i = early.size() - 1; i >= 0; i--) {
+            View view = early.get(i);
+            if (view.number < upTo) {
+                batch[(int) (view.number - from)] = view.task;
+                early.remove(i);
+                collected++;
+            }
+        }
+        while (collected < batch.length) {
+            for (int i = 0; i < STRIPES; i++) {
+                Queue<View> stripe = stripes.get(i);
+                View view;
+                while (stripe != null && (view = stripe.poll()) != null) {
+                    if (view.number < upTo) {
+                        batch[(int) (view.number - from)] = view.task;
+                        collected++;
+                    } else {
+                        early.add(view);
+                    }
+                }
+            }
+            if (collected < batch.length) {
+                Thread.yield();
+            }
+        }
+
+        for (Task task : batch) {
+            history.add(task);
+        }
+        drainedUpTo = upTo;
+    }
+
+    private Queue<View> stripe() {
+        int index = (int) mix(Thread.currentThread().threadId()) & (STRIPES - 1);
+        Queue<View> stripe = stripes.get(index);
+        if (stripe == null) {
+            stripes.compareAndSet(index, null, new ConcurrentLinkedQueue<>());
+            stripe = stripes.get(index);
+        }
+        return stripe;
+    }
+
+    // Соседние ID потоков должны попадать в разные полосы
+    private static long mix(long value) {
+        value *= 0x9E3779B97F4A7C15L;
+        return value ^ (value >>> 32);
+    }
+
+    // Степень двойки не меньше удвоенного числа процессоров
+    private static int stripeCount() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        return Integer.highestOneBit(Math.max(1, processors * 2 - 1)) << 1;
+    }
+
+    private record View(long number, Task task) {
+    }
+}
@@ -0,0 +1,227 @@
+package ru.yandex.practicum;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Потокобезопасный менеджер поверх обычного: изменения выполняются под блокировкой записи,
+// поэтому статус, время и список подзадач эпика меняются вместе с подзадачей и не видны наполовину.
+// Чтения идут параллельно под блокировкой чтения и возвращают копии, снятые под ней же: вложенный менеджер
+// меняет свои объекты на месте, и живой объект после снятия блокировки мог бы читаться посреди изменения.
+// Чтения пишут в историю просмотров,
+// поэтому история вложенного менеджера должна быть потокобезопасной (см. Managers.getConcurrent)
+public class ConcurrentTaskManager implements TaskManager {
+    private final TaskManager delegate;
+    private final Lock readLock;
+    private final Lock writeLock;
+
+    public ConcurrentTaskManager(TaskManager delegate) {
+        ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        this.delegate = delegate;
+        this.readLock = lock.readLock();
+        this.writeLock = lock.writeLock();
+    }
+
+    // Создание задач
+    @Override
+    public Task createTask(Task task) {
+        return write(() -> delegate.createTask(task));
+    }
+
+    @Override
+    public Epic createEpic(Epic epic) {
+        return write(() -> delegate.createEpic(epic));
+    }
+
+    @Override
+    public Subtask createSubtask(Subtask subtask) {
+        return write(() -> delegate.createSubtask(subtask));
+    }
+
+    // Обновление задач
+    @Override
+    public Task updateTask(Task task) {
+        return write(() -> copy(delegate.updateTask(task)));
+    }
+
+    @Override
+    public Epic updateEpic(Epic epic) {
+        return write(() -> copy(delegate.updateEpic(epic)));
+    }
+
+    @Override
+    public Subtask updateSubtask(Subtask subtask) {
+        return write(() -> copy(delegate.updateSubtask(subtask)));
+    }
+
+    // Удаление всех задач
+    @Override
+    public void deleteAllTasks() {
+        write(delegate::deleteAllTasks);
+    }
+
+    @Override
+    public void deleteAllEpics() {
+        write(delegate::deleteAllEpics);
+    }
+
+    @Override
+    public void deleteAllSubtasks() {
+        write(delegate::deleteAllSubtasks);
+    }
+
+    // Получение задач по ID
+    @Override
+    public Task getTask(int id) {
+        return read(() -> copy(delegate.getTask(id)));
+    }
+
+    @Override
+    public Epic getEpic(int id) {
+        return read(() -> copy(delegate.getEpic(id)));
+    }
+
+    @Override
+    public Subtask getSubtask(int id) {
+        return read(() -> copy(delegate.getSubtask(id)));
+    }
+
+    // Удаление по ID
+    @Override
+    public void deleteTask(int id) {
+        write(() -> delegate.deleteTask(id));
+    }
+
+    @Override
+    public void deleteEpic(int id) {
+        write(() -> delegate.deleteEpic(id));
+    }
+
+    @Override
+    public void deleteSubtask(int id) {
+        write(() -> delegate.deleteSubtask(id));
+    }
+
+    // Получение списков задач
+    @Override
+    public List<Task> getAllTasks() {
+        return read(() -> copyAll(delegate.getAllTasks()));
+    }
+
+    @Override
+    public List<Epic> getAllEpics() {
+        return read(() -> copyAll(delegate.getAllEpics()));
+    }
+
+    @Override
+    public List<Subtask> getAllSubtasks() {
+        return read(() -> copyAll(delegate.getAllSubtasks()));
+    }
+
+    @Override
+    public int getTaskCount(TaskType type) {
+        return read(() -> delegate.getTaskCount(type));
+    }
+
+    @Override
+    public int getHistorySize() {
+        return read(delegate::getHistorySize);
+    }
+
+    @Override
+    public TaskType getTaskType(int id) {
+        return read(() -> delegate.getTaskType(id));
+    }
+
+    @Override
+    public void forEachTask(Consumer<? super Task> action) {
+        read(() -> {
+            delegate.forEachTask(action);
+            return null;
+        });
+    }
+
+    // Живое представление нельзя обходить без блокировки, поэтому возвращается снимок
+    @Override
+    public Collection<Task> getPrioritizedTasks() {
+        return read(() -> Collections.unmodifiableList(copyAll(delegate.getPrioritizedTasks())));
+    }
+
+    @Override
+    public List<Task> getOverlappingTasks(LocalDateTime from, LocalDateTime to) {
+        return read(() -> copyAll(delegate.getOverlappingTasks(from, to)));
+    }
+
+    // Получение подзадач эпика
+    @Override
+    public List<Subtask> getEpicSubtasks(int epicId) {
+        return read(() -> copyAll(delegate.getEpicSubtasks(epicId)));
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return read(() -> copyAll(delegate.getHistory()));
+    }
+
+    @Override
+    public List<Task> getLastViewed(int count) {
+        return read(() -> copyAll(delegate.getLastViewed(count)));
+    }
+
+    @Override
+    public List<Task> getHistoryAfter(int cursorId, int limit) {
+        return read(() -> copyAll(delegate.getHistoryAfter(cursorId, limit)));
+    }
+
+    // Снимок истории тоже копируется: в нём те же живые объекты, что и в хранилищах
+    @Override
+    public List<Task> getHistorySnapshot() {
+        return read(() -> Collections.unmodifiableList(copyAll(delegate.getHistorySnapshot())));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Task> T copy(T task) {
+        return task == null ? null : (T) task.copy();
+    }
+
+    private static <T extends Task> List<T> copyAll(Collection<T> tasks) {
+        List<T> copies = new ArrayList<>(tasks.size());
+        for (T task : tasks) {
+            copies.add(copy(task));
+        }
+        return copies;
+    }
+
+    private <T> T read(Supplier<T> action) {
+        readLock.lock();
+        try {
+            return action.get();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private <T> T write(Supplier<T> action) {
+        writeLock.lock();
+        try {
+            return action.get();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void write(Runnable action) {
+        writeLock.lock();
+        try {
+            action.run();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
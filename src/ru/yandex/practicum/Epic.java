@@ -1,27 +1,42 @@
 package ru.yandex.practicum;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.List;
 import static ru.yandex.practicum.TaskType.EPIC;
 
 public class Epic extends Task {
-    private final ArrayList<Integer> subtaskIds = new ArrayList<>();
+    private final IntArrayList subtaskIds = new IntArrayList();
     LocalDateTime endTime;
 
     public Epic(String name, String description) {
         super(name, description);
     }
 
-    public ArrayList<Integer> getSubtaskIds() {
+    // Изменяемый список, как и прежде: add, remove, set и clear меняют подзадачи эпика
+    public List<Integer> getSubtaskIds() {
+        return subtaskIds;
+    }
+
+    // Тот же список для кода пакета, которому нужны значения без упаковки
+    IntArrayList subtaskIdList() {
         return subtaskIds;
     }
 
     public void addSubtaskId(int subtaskId) {
-        subtaskIds.add(subtaskId);
+        subtaskIds.addInt(subtaskId);
     }
 
     public void removeSubtaskId(int subtaskId) {
-        subtaskIds.remove((Integer) subtaskId);
+        subtaskIds.removeInt(subtaskId);
+    }
+
+    @Override
+    Epic copy() {
+        Epic copy = new Epic(getName(), getDescription());
+        copyFieldsTo(copy);
+        subtaskIds.forEachInt(copy.subtaskIds::addInt);
+        copy.endTime = endTime;
+        return copy;
     }
 
     public void setEndTime(LocalDateTime endTime) {
@@ -33,6 +48,11 @@ public class Epic extends Task {
       return endTime;
     }
 
+    @Override
+    long getEndKey() {
+        return endTime == null ? NO_START_KEY : TaskTimeIndex.toKey(endTime);
+    }
+
     @Override
     public TaskType getType() {
         return EPIC;
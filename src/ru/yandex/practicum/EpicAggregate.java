@@ -0,0 +1,108 @@
+package ru.yandex.practicum;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+// Сводные данные эпика, которые обновляются приращениями при изменении подзадачи,
+// а не пересчётом по всем подзадачам: счётчики статусов, суммарная длительность и
+// упорядоченные мультимножества начал и окончаний подзадач.
+// Вклад каждой подзадачи запоминается, поэтому при изменении вычитается именно то, что было прибавлено,
+// даже если объект подзадачи уже изменили снаружи
+public class EpicAggregate {
+    private final IntObjectHashMap<Contribution> contributions = new IntObjectHashMap<>(4);
+    private final int[] statusCounts = new int[Status.values().length];
+    private long durationMinutes;
+    private final TreeMap<LocalDateTime, Integer> startTimes = new TreeMap<>();
+    private final TreeMap<LocalDateTime, Integer> endTimes = new TreeMap<>();
+
+    private record Contribution(Status status, long durationMinutes, LocalDateTime startTime, LocalDateTime endTime) {
+    }
+
+    // Добавление новой подзадачи или замена прежнего вклада подзадачи с тем же ID.
+    // Заменённая подзадача остаётся на своём месте в порядке подзадач
+    public void put(Subtask subtask) {
+        Contribution contribution = new Contribution(subtask.getStatus(), subtask.getDuration(),
+                subtask.getStartTime(), subtask.getEndTime());
+        Contribution previous = contributions.put(subtask.getId(), contribution);
+        if (previous != null) {
+            subtract(previous);
+        }
+
+        statusCounts[contribution.status().ordinal()]++;
+        durationMinutes += contribution.durationMinutes();
+        if (contribution.startTime() != null) {
+            startTimes.merge(contribution.startTime(), 1, Integer::sum);
+            endTimes.merge(contribution.endTime(), 1, Integer::sum);
+        }
+    }
+
+    public void remove(int subtaskId) {
+        Contribution contribution = contributions.remove(subtaskId);
+        if (contribution != null) {
+            subtract(contribution);
+        }
+    }
+
+    public void clear() {
+        contributions.clear();
+        Arrays.fill(statusCounts, 0);
+        durationMinutes = 0;
+        startTimes.clear();
+        endTimes.clear();
+    }
+
+    public int size() {
+        return contributions.size();
+    }
+
+    public boolean contains(int subtaskId) {
+        return contributions.containsKey(subtaskId);
+    }
+
+    // ID подзадач в порядке добавления
+    public void forEachSubtaskId(IntConsumer action) {
+        contributions.forEachKey(action);
+    }
+
+    // Эпик без подзадач или только с новыми подзадачами - NEW, только с выполненными - DONE
+    public Status getStatus() {
+        int size = contributions.size();
+        if (size == statusCounts[Status.NEW.ordinal()]) {
+            return Status.NEW;
+        }
+        if (size == statusCounts[Status.DONE.ordinal()]) {
+            return Status.DONE;
+        }
+        return Status.IN_PROGRESS;
+    }
+
+    public long getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    // Самое раннее начало подзадачи или null, если ни у одной подзадачи нет времени
+    public LocalDateTime getStartTime() {
+        return startTimes.isEmpty() ? null : startTimes.firstKey();
+    }
+
+    // Самое позднее окончание подзадачи. Между подзадачами могут быть промежутки,
+    // поэтому оно не равно началу плюс суммарная длительность
+    public LocalDateTime getEndTime() {
+        return endTimes.isEmpty() ? null : endTimes.lastKey();
+    }
+
+    private void subtract(Contribution contribution) {
+        statusCounts[contribution.status().ordinal()]--;
+        durationMinutes -= contribution.durationMinutes();
+        if (contribution.startTime() != null) {
+            startTimes.computeIfPresent(contribution.startTime(), EpicAggregate::decrement);
+            endTimes.computeIfPresent(contribution.endTime(), EpicAggregate::decrement);
+        }
+    }
+
+    private static Integer decrement(LocalDateTime time, Integer count) {
+        return count == 1 ? null : count - 1;
+    }
+}
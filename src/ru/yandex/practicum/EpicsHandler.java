@@ -0,0 +1,79 @@
+package ru.yandex.practicum;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+
+// /epics, /epics/{id} и /epics/{id}/subtasks
+public class EpicsHandler extends BaseHttpHandler {
+
+    public EpicsHandler(TaskManager taskManager) {
+        super(taskManager);
+    }
+
+    @Override
+    protected void handleGet(HttpExchange exchange, String[] path) throws IOException {
+        if (path.length == 2) {
+            sendTasks(exchange, tasksOfType(taskManager, TaskType.EPIC));
+            return;
+        }
+        if (path.length > 4 || (path.length == 4 && !path[3].equals("subtasks"))) {
+            sendNotFound(exchange);
+            return;
+        }
+
+        int id = parseId(path[2]);
+        if (path.length == 4) {
+            // Список подзадач - не просмотр самого эпика, поэтому эпик проверяется без записи в историю
+            if (taskManager.getTaskType(id) != TaskType.EPIC) {
+                sendNotFound(exchange);
+            } else {
+                sendTasks(exchange, taskManager.getEpicSubtasks(id)::forEach);
+            }
+            return;
+        }
+
+        Epic epic = taskManager.getEpic(id);
+        if (epic == null) {
+            sendNotFound(exchange);
+        } else {
+            sendTask(exchange, 200, epic);
+        }
+    }
+
+    // Эпик без id создаётся, с id - у него меняются название и описание
+    @Override
+    protected void handlePost(HttpExchange exchange, String[] path) throws IOException {
+        if (path.length != 2) {
+            sendNotFound(exchange);
+            return;
+        }
+
+        Epic epic = (Epic) readTask(exchange, TaskType.EPIC);
+        if (epic.getId() == 0) {
+            sendTask(exchange, 201, taskManager.createEpic(epic));
+            return;
+        }
+
+        // В ответе сохранённый эпик: статус, время и подзадачи считает менеджер, в запросе их может не быть
+        Epic updated = taskManager.updateEpic(epic);
+        if (updated == null) {
+            sendNotFound(exchange);
+        } else {
+            sendTask(exchange, 201, updated);
+        }
+    }
+
+    @Override
+    protected void handleDelete(HttpExchange exchange, String[] path) throws IOException {
+        if (path.length == 2) {
+            taskManager.deleteAllEpics();
+        } else if (path.length == 3) {
+            taskManager.deleteEpic(parseId(path[2]));
+        } else {
+            sendNotFound(exchange);
+            return;
+        }
+        sendText(exchange, 200, "");
+    }
+}
@@ -1,94 +1,184 @@
 package ru.yandex.practicum;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
-import java.time.Duration;
-import java.time.LocalDateTime;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 
-public class FileBackedTaskManager extends InMemoryTaskManager {
+public class FileBackedTaskManager extends InMemoryTaskManager implements AutoCloseable {
 
     File file;
+    private final StorageSettings settings;
+    private final TaskJournal journal;
+    // Фоновый поток запускается при первом изменении, а не в конструкторе, чтобы не публиковать this до конца создания
+    private ScheduledExecutorService flusher;
+    private boolean closed;
+    private final Object flushLock = new Object();
+    private List<String> pendingRecords = new ArrayList<>();
+    private int pendingChanges;
+    private boolean flushRequested;
+    private volatile long lastFlushNanos;
+    private volatile long lastForceNanos = System.nanoTime();
+    private volatile boolean unsynced;
+    private final StorageMetrics metrics = new StorageMetrics();
 
     public FileBackedTaskManager(File file) {
+        this(file, StorageSettings.snapshot());
+    }
+
+    public FileBackedTaskManager(File file, StorageSettings settings) {
+        this(file, settings, true);
+    }
+
+    private FileBackedTaskManager(File file, StorageSettings settings, boolean newBoard) {
         this.file = file;
+        this.settings = settings;
+        this.journal = settings.journal() ? new TaskJournal(file) : null;
+        if (journal != null && newBoard) {
+            // Новая доска начинается с пустого снимка, иначе старый журнал наложится на неё при загрузке.
+            // Доска ещё пуста, поэтому снимок собирается без обхода задач и переопределяемых методов
+            commitSnapshot(renderTasks(List.of(), TaskBinaryFormat.isBinary(file), 1), 1);
+        }
+    }
+
+    private ScheduledExecutorService startFlusher(StorageSettings settings) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "file-backed-task-manager-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (settings.flushIntervalMillis() > 0) {
+            executor.scheduleWithFixedDelay(this::flushInBackground, settings.flushIntervalMillis(),
+                    settings.flushIntervalMillis(), TimeUnit.MILLISECONDS);
+        }
+        return executor;
     }
 
     public static FileBackedTaskManager loadFromFile(File file) {
-        FileBackedTaskManager manager = new FileBackedTaskManager(file);
+        return loadFromFile(file, StorageSettings.snapshot());
+    }
 
-        try (BufferedReader fileReader = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8))) {
-            List<String> lines = new ArrayList<>();
-            String header = fileReader.readLine(); // Первая строка заголовок в csv
-            if (header == null || !header.startsWith("id,type,name,status,description,duration,startTime,epic")) {
-                throw new ManagerLoadException("Файл имеет неверный формат.");
-            }
+    public static FileBackedTaskManager loadFromFile(File file, StorageSettings settings) {
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, settings, false);
+        long start = System.nanoTime();
+        TaskSnapshot snapshot = readSnapshot(file);
+        manager.restore(snapshot.tasks());
 
-            String line;
-            while ((line = fileReader.readLine()) != null) {
-                if (!line.isBlank()) {
-                    lines.add(line);
-                }
-            }
+        if (manager.journal != null) {
+            manager.replayJournal(snapshot.journalGeneration());
+        }
+        manager.metrics.getLoad().record(System.nanoTime() - start);
+        return manager;
+    }
 
-            for (String s : lines) {
-                Task task = manager.fromString(s);
-                manager.addTaskFromLoad(task);
-            }
+    static TaskSnapshot readSnapshot(File file) {
+        if (TaskBinaryFormat.isBinary(file)) {
+            return TaskBinaryFormat.readSnapshot(file);
+        }
+
+        try (Reader fileReader = new FileReader(file, StandardCharsets.UTF_8)) {
+            TaskCsvReader csvReader = new TaskCsvReader(fileReader);
+            long journalGeneration = csvReader.readHeader(); // Первая строка заголовок в csv
 
+            List<Task> loadedTasks = new ArrayList<>();
+            Task task;
+            while ((task = csvReader.next()) != null) {
+                loadedTasks.add(task);
+            }
+            return new TaskSnapshot(loadedTasks, journalGeneration);
         } catch (IOException e) {
             throw new ManagerLoadException("Произошла ошибка во время чтения файла.");
         }
+    }
 
-        return manager;
+    static byte[] renderTasks(List<Task> tasks, boolean binary) {
+        return renderTasks(tasks, binary, 0);
     }
 
-    private Task fromString(String value) {
-        String[] parts = value.split(",");
-        if (parts.length < 7) {
-            throw new ManagerLoadException("Неверный формат строки: " + value);
-        }
-
-        int id = Integer.parseInt(parts[0]);
-        String type = parts[1];
-        String name = parts[2];
-        String status = parts[3];
-        String description = parts[4];
-        Duration duration = Duration.ofMinutes(Long.parseLong(parts[5]));
-        LocalDateTime startTime = LocalDateTime.parse(parts[6]);
-        int epicId = -1;
-        if (parts.length > 7) {
-            epicId = Integer.parseInt(parts[7]);
-        }
-
-        switch (type) {
-            case "TASK":
-                Task task = new Task(name, description, duration, startTime);
-                task.setId(id);
-                task.setStatus(Status.valueOf(status));
-                return task;
-
-            case "EPIC":
-                Epic epic = new Epic(name, description);
-                epic.setId(id);
-                epic.setStatus(Status.valueOf(status));
-                epic.setDuration(duration);
-                epic.setStartTime(startTime);
-                return epic;
-
-            case "SUBTASK":
-                if (epicId == -1) {
-                    throw new IllegalArgumentException("У подзадачи отсутствует ID эпика.");
-                }
-                Subtask subtask = new Subtask(name, description, duration, startTime, epicId);
-                subtask.setId(id);
-                subtask.setStatus(Status.valueOf(status));
-                return subtask;
+    // journalGeneration - поколение журнала поверх снимка, для снимка без журнала 0
+    static byte[] renderTasks(List<Task> tasks, boolean binary, long journalGeneration) {
+        if (binary) {
+            return TaskBinaryFormat.write(tasks, journalGeneration);
+        }
 
-            default:
-                throw new IllegalArgumentException("Неизвестный тип задачи: " + type);
+        StringBuilder builder = new StringBuilder(TaskCsvReader.HEADER);
+        if (journalGeneration != 0) {
+            builder.append(TaskCsvReader.JOURNAL_GENERATION).append(journalGeneration);
+        }
+        builder.append('\n');
+        for (Task task : tasks) {
+            builder.append(task.toString(task)).append('\n');
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Повтор операций из журнала поверх снимка. Журнал другого поколения остался от сбоя после записи
+    // нового снимка: его изменения уже в снимке, и он удаляется без повтора
+    private void replayJournal(long snapshotGeneration) {
+        List<String> records = journal.readRecords();
+        long journalGeneration = journal.getFileGeneration();
+        boolean stale = journalGeneration == TaskJournal.NO_GENERATION
+                ? snapshotGeneration != 0 && !records.isEmpty()
+                : journalGeneration != snapshotGeneration;
+        if (stale) {
+            journal.reset(snapshotGeneration);
+            return;
+        }
+        journal.setGeneration(snapshotGeneration);
+        // Оборванная последняя запись уже отрезана при чтении журнала, остальные записи целые
+        for (String record : records) {
+            try {
+                applyJournalRecord(record);
+            } catch (RuntimeException e) {
+                throw new ManagerLoadException("Неверная запись журнала: " + record);
+            }
+        }
+    }
+
+    private void applyJournalRecord(String record) {
+        int separator = record.indexOf(',');
+        String operation = record.substring(0, separator);
+        String value = record.substring(separator + 1);
+
+        switch (operation) {
+            case TaskJournal.CREATE -> {
+                Task task = TaskCsvReader.parse(value);
+                // После сбоя между записью снимка и очисткой журнала задача уже может быть в снимке
+                if (containsId(task.getId())) {
+                    updateFromLoad(task);
+                } else {
+                    addTaskFromLoad(task);
+                }
+            }
+            case TaskJournal.UPDATE -> updateFromLoad(TaskCsvReader.parse(value));
+            case TaskJournal.DELETE -> {
+                String[] parts = value.split(",");
+                int id = Integer.parseInt(parts[1]);
+                switch (TaskType.valueOf(parts[0])) {
+                    case TASK -> super.deleteTask(id);
+                    case EPIC -> super.deleteEpic(id);
+                    case SUBTASK -> super.deleteSubtask(id);
+                }
+            }
+            case TaskJournal.CLEAR -> {
+                switch (TaskType.valueOf(value)) {
+                    case TASK -> super.deleteAllTasks();
+                    case EPIC -> super.deleteAllEpics();
+                    case SUBTASK -> super.deleteAllSubtasks();
+                }
+            }
+            default -> throw new IllegalArgumentException("Неизвестная операция журнала: " + operation);
         }
     }
 
@@ -102,99 +192,350 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
         }
     }
 
+    private <T extends Task> void updateFromLoad(T task) {
+        if (task instanceof Epic epic) {
+            super.updateEpic(epic);
+        } else if (task instanceof Subtask subtask) {
+            super.updateSubtask(subtask);
+        } else {
+            super.updateTask(task);
+        }
+    }
+
     @Override
-    public Task createTask(Task task) {
+    public synchronized Task createTask(Task task) {
+        checkOpen();
         super.createTask(task);
-        save();
+        saveChange(TaskJournal.created(task));
         return task;
     }
 
     @Override
-    public Epic createEpic(Epic epic) {
+    public synchronized Epic createEpic(Epic epic) {
+        checkOpen();
         super.createEpic(epic);
-        save();
+        saveChange(TaskJournal.created(epic));
         return epic;
     }
 
     @Override
-    public Subtask createSubtask(Subtask subtask) {
+    public synchronized Subtask createSubtask(Subtask subtask) {
+        checkOpen();
         super.createSubtask(subtask);
-        save();
+        saveChange(TaskJournal.created(subtask));
         return subtask;
     }
 
     @Override
-    public void updateTask(Task task) {
-        super.updateTask(task);
-        save();
+    public synchronized Task updateTask(Task task) {
+        checkOpen();
+        Task updated = super.updateTask(task);
+        if (updated != null) {
+            saveChange(TaskJournal.updated(updated));
+        }
+        return updated;
     }
 
     @Override
-    public void updateEpic(Epic epic) {
-        super.updateEpic(epic);
-        save();
+    public synchronized Epic updateEpic(Epic epic) {
+        checkOpen();
+        Epic updated = super.updateEpic(epic);
+        if (updated != null) {
+            saveChange(TaskJournal.updated(updated));
+        }
+        return updated;
     }
 
     @Override
-    public void updateSubtask(Subtask subtask) {
-        super.updateSubtask(subtask);
-        save();
+    public synchronized Subtask updateSubtask(Subtask subtask) {
+        checkOpen();
+        Subtask updated = super.updateSubtask(subtask);
+        if (updated != null) {
+            saveChange(TaskJournal.updated(updated));
+        }
+        return updated;
     }
 
     @Override
-    public void deleteAllTasks() {
+    public synchronized void deleteAllTasks() {
+        checkOpen();
         super.deleteAllTasks();
-        save();
+        saveChange(TaskJournal.cleared(TaskType.TASK));
     }
 
     @Override
-    public void deleteAllEpics() {
+    public synchronized void deleteAllEpics() {
+        checkOpen();
         super.deleteAllEpics();
-        save();
+        saveChange(TaskJournal.cleared(TaskType.EPIC));
     }
 
     @Override
-    public void deleteAllSubtasks() {
+    public synchronized void deleteAllSubtasks() {
+        checkOpen();
         super.deleteAllSubtasks();
-        save();
+        saveChange(TaskJournal.cleared(TaskType.SUBTASK));
     }
 
     @Override
-    public void deleteTask(int id) {
+    public synchronized void deleteTask(int id) {
+        checkOpen();
         super.deleteTask(id);
-        save();
+        saveChange(TaskJournal.deleted(TaskType.TASK, id));
     }
 
     @Override
-    public void deleteEpic(int id) {
+    public synchronized void deleteEpic(int id) {
+        checkOpen();
         super.deleteEpic(id);
-        save();
+        saveChange(TaskJournal.deleted(TaskType.EPIC, id));
     }
 
     @Override
-    public void deleteSubtask(int id) {
+    public synchronized void deleteSubtask(int id) {
+        checkOpen();
         super.deleteSubtask(id);
-        save();
+        saveChange(TaskJournal.deleted(TaskType.SUBTASK, id));
+    }
+
+    // Количество изменений, ещё не записанных на диск
+    public synchronized int getPendingChanges() {
+        return pendingChanges;
+    }
+
+    // Длительность последней записи на диск в наносекундах
+    public long getLastFlushNanos() {
+        return lastFlushNanos;
+    }
+
+    // Время записи и загрузки, объём записанных данных
+    public StorageMetrics getStorageMetrics() {
+        return metrics;
     }
 
+    // Запись накопленных изменений, после возврата они гарантированно переданы в файл
+    public void flush() {
+        synchronized (flushLock) {
+            List<String> records;
+            int changes;
+            byte[] snapshot = null;
+            long generation = 0;
+            synchronized (this) {
+                if (pendingChanges == 0) {
+                    return;
+                }
+                records = pendingRecords;
+                changes = pendingChanges;
+                pendingRecords = new ArrayList<>();
+                pendingChanges = 0;
+                flushRequested = false;
+                // Снимок пересобирается под той же блокировкой, что и забор изменений, и заменяет их
+                if (journal == null || journal.size() + records.size() >= settings.compactionThreshold()) {
+                    generation = nextGeneration();
+                    snapshot = renderSnapshot(generation);
+                }
+            }
+
+            long start = System.nanoTime();
+            try {
+                if (snapshot != null) {
+                    commitSnapshot(snapshot, generation);
+                } else {
+                    metrics.journalWritten(records.size(), journal.appendAll(records, shouldForce()));
+                }
+            } catch (ManagerSaveException e) {
+                metrics.getFlush().recordError(System.nanoTime() - start);
+                synchronized (this) {
+                    records.addAll(pendingRecords);
+                    pendingRecords = records;
+                    pendingChanges += changes;
+                }
+                throw e;
+            }
+            lastFlushNanos = System.nanoTime() - start;
+            metrics.getFlush().record(lastFlushNanos);
+        }
+    }
+
+    // Запись накопленных изменений и остановка фонового потока. После закрытия изменения отклоняются
+    @Override
+    public void close() {
+        ScheduledExecutorService executor;
+        synchronized (this) {
+            closed = true;
+            executor = flusher;
+        }
+        if (executor != null) {
+            executor.shutdown();
+        }
+        flush();
+        synchronized (flushLock) {
+            syncPending();
+        }
+    }
+
+    // Проверка до изменения состояния: закрытый менеджер не может ни записать изменение, ни потерять его
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Менеджер закрыт, изменения не сохраняются.");
+        }
+    }
+
+    private void saveChange(String record) {
+        if (settings.async()) {
+            if (flusher == null) {
+                flusher = startFlusher(settings);
+            }
+            // В фоновом режиме изменение только помечается, запись выполнит фоновый поток
+            if (journal != null) {
+                pendingRecords.add(record);
+            }
+            pendingChanges++;
+            if (settings.flushBatchSize() > 0 && pendingChanges >= settings.flushBatchSize() && !flushRequested) {
+                flushRequested = true;
+                flusher.execute(this::flushInBackground);
+            }
+            return;
+        }
+
+        // В режиме журнала изменение дописывается одной строкой, иначе файл перезаписывается целиком
+        if (journal == null) {
+            save();
+            return;
+        }
+
+        metrics.journalWritten(1, journal.append(record, shouldForce()));
+        if (journal.size() >= settings.compactionThreshold()) {
+            save();
+        }
+    }
+
+    private void flushInBackground() {
+        try {
+            flush();
+        } catch (ManagerSaveException e) {
+            // Изменения остаются в очереди и будут записаны при следующей попытке
+        }
+    }
+
+    // Запись свежего снимка и очистка журнала
+    public void compact() {
+        synchronized (flushLock) {
+            synchronized (this) {
+                pendingRecords.clear();
+                pendingChanges = 0;
+                save();
+            }
+        }
+    }
+
+    // Запись снимка, в режиме журнала - с переходом на новое поколение журнала
     private void save() {
-        try (BufferedWriter fileWriter = new BufferedWriter(
-                new FileWriter(file.getPath(), StandardCharsets.UTF_8))) {
+        long start = System.nanoTime();
+        try {
+            long generation = nextGeneration();
+            commitSnapshot(renderSnapshot(generation), generation);
+        } catch (ManagerSaveException e) {
+            metrics.getSave().recordError(System.nanoTime() - start);
+            throw e;
+        }
+        metrics.getSave().record(System.nanoTime() - start);
+    }
+
+    private long nextGeneration() {
+        return journal == null ? 0 : journal.getGeneration() + 1;
+    }
 
-            fileWriter.write("id,type,name,status,description,duration,startTime,epic\n");
+    private byte[] renderSnapshot(long generation) {
+        return renderTasks(collectAllTasks(), TaskBinaryFormat.isBinary(file), generation);
+    }
 
-            // Добавляем в один список и записываем все задачи, эпики и подзадачи
-            List<Task> allTasks = new ArrayList<>();
-            allTasks.addAll(getAllTasks());
-            allTasks.addAll(getAllEpics());
-            allTasks.addAll(getAllSubtasks());
+    // Переименование снимка - точка фиксации: после него журнал прежнего поколения при загрузке не повторяется,
+    // поэтому сбой до очистки журнала не приводит к повторному применению уже сохранённых изменений
+    private void commitSnapshot(byte[] snapshot, long generation) {
+        writeSnapshot(snapshot);
+        if (journal != null) {
+            journal.reset(generation);
+        }
+    }
 
-            for (Task task: allTasks) {
-                fileWriter.write(task.toString(task) + "\n");
+    // Снимок пишется во временный файл рядом и атомарно подменяет старый,
+    // поэтому при сбое на диске остаётся либо прежняя, либо новая версия целиком
+    private void writeSnapshot(byte[] snapshot) {
+        Path target = file.toPath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        boolean force = shouldForce();
+
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(snapshot);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
             }
+            if (force) {
+                channel.force(true);
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Произошла ошибка во время сохранения файла.");
+        }
+
+        try {
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Произошла ошибка во время сохранения файла.");
+        }
 
+        if (force) {
+            syncDirectory(target);
+        }
+        metrics.snapshotWritten(snapshot.length);
+    }
+
+    // Сброс каталога, чтобы переименование файла тоже пережило сбой питания
+    private void syncDirectory(Path target) {
+        Path directory = target.toAbsolutePath().getParent();
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Не все файловые системы позволяют открыть каталог, данные файла уже сброшены
+        }
+    }
+
+    private boolean shouldForce() {
+        switch (settings.fsyncPolicy()) {
+            case ALWAYS:
+                return true;
+            case PERIODIC:
+                long now = System.nanoTime();
+                if (now - lastForceNanos >= TimeUnit.MILLISECONDS.toNanos(settings.fsyncIntervalMillis())) {
+                    lastForceNanos = now;
+                    return true;
+                }
+                unsynced = true;
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    // Сброс на диск того, что было записано без fsync при периодической политике
+    private void syncPending() {
+        if (!unsynced) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.force(true);
         } catch (IOException e) {
             throw new ManagerSaveException("Произошла ошибка во время сохранения файла.");
         }
+        if (journal != null) {
+            journal.sync();
+        }
+        unsynced = false;
     }
 }
@@ -0,0 +1,8 @@
+package ru.yandex.practicum;
+
+// Когда принудительно сбрасывать записанные данные на диск
+public enum FsyncPolicy {
+    ALWAYS,
+    PERIODIC,
+    NEVER
+}
@@ -0,0 +1,22 @@
+package ru.yandex.practicum;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+
+// /history
+public class HistoryHandler extends BaseHttpHandler {
+
+    public HistoryHandler(TaskManager taskManager) {
+        super(taskManager);
+    }
+
+    @Override
+    protected void handleGet(HttpExchange exchange, String[] path) throws IOException {
+        if (path.length == 2) {
+            sendTasks(exchange, taskManager.getHistorySnapshot()::forEach);
+        } else {
+            sendNotFound(exchange);
+        }
+    }
+}
@@ -1,11 +1,56 @@
 package ru.yandex.practicum;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public interface HistoryManager {
+    // Курсор для первой страницы истории
+    int NO_CURSOR = 0;
+
     void add(Task task);
 
     void remove(int id);
 
     List<Task> getHistory();
+
+    // Число задач в истории. Реализации отвечают без копирования истории
+    default int size() {
+        return getHistory().size();
+    }
+
+    // Последние count просмотров, начиная с самого свежего
+    default List<Task> getLastViewed(int count) {
+        checkPageSize(count);
+        List<Task> history = getHistory();
+        List<Task> result = new ArrayList<>(history.subList(Math.max(0, history.size() - count), history.size()));
+        Collections.reverse(result);
+        return result;
+    }
+
+    // До limit просмотров после задачи cursorId в порядке истории, с начала истории для NO_CURSOR.
+    // Если задачи cursorId в истории уже нет, возвращается пустой список
+    default List<Task> getHistoryAfter(int cursorId, int limit) {
+        checkPageSize(limit);
+        List<Task> history = getHistory();
+        int from = 0;
+        if (cursorId != NO_CURSOR) {
+            from = history.stream().map(Task::getId).toList().indexOf(cursorId) + 1;
+            if (from == 0) {
+                return new ArrayList<>();
+            }
+        }
+        return new ArrayList<>(history.subList(from, Math.min(history.size(), from + limit)));
+    }
+
+    // История только для чтения; пока история не менялась, возвращается тот же список без копирования
+    default List<Task> getHistorySnapshot() {
+        return Collections.unmodifiableList(getHistory());
+    }
+
+    static void checkPageSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Размер страницы не может быть отрицательным.");
+        }
+    }
 }
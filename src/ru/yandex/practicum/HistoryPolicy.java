@@ -0,0 +1,9 @@
+package ru.yandex.practicum;
+
+// Какие чтения попадают в историю просмотров
+public enum HistoryPolicy {
+    // Только получение одной задачи по ID
+    SINGLE_READS,
+    // Также каждый элемент списков getAllTasks, getAllEpics и getAllSubtasks
+    ALL_READS
+}
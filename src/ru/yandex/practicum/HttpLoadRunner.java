@@ -0,0 +1,186 @@
+package ru.yandex.practicum;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Нагрузочный прогон HTTP API на локальной машине: поднимает сервер на свободном порту с заполненным
+// потокобезопасным менеджером и для каждого уровня параллелизма в течение заданного времени гоняет смесь
+// запросов (70% чтение задачи, 10% история, 10% подзадачи эпика, 10% обновление подзадачи).
+// Печатает запросы в секунду, p50 и p99 задержки.
+// Аргументы: [секунд на уровень] [уровни параллелизма через запятую]
+public class HttpLoadRunner {
+    private static final int TASKS = 1_000;
+    private static final int EPICS = 100;
+    private static final int SUBTASKS_PER_EPIC = 10;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final String baseUrl;
+    private final int[] taskIds;
+    private final int[] epicIds;
+    private final List<Subtask> subtasks;
+
+    private HttpLoadRunner(String baseUrl, int[] taskIds, int[] epicIds, List<Subtask> subtasks) {
+        this.baseUrl = baseUrl;
+        this.taskIds = taskIds;
+        this.epicIds = epicIds;
+        this.subtasks = subtasks;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        int[] levels = args.length > 1
+                ? Arrays.stream(args[1].split(",")).mapToInt(Integer::parseInt).toArray()
+                : new int[]{1, 4, 16, 64, 256};
+
+        InstrumentedTaskManager manager = Managers.getInstrumented(Managers.getConcurrent());
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+        int[] taskIds = new int[TASKS];
+        for (int i = 0; i < TASKS; i++) {
+            taskIds[i] = manager.createTask(new Task("Задача " + i, "Описание", Duration.ofMinutes(30),
+                    start.plusHours(i))).getId();
+        }
+        int[] epicIds = new int[EPICS];
+        List<Subtask> subtasks = new ArrayList<>();
+        for (int i = 0; i < EPICS; i++) {
+            epicIds[i] = manager.createEpic(new Epic("Эпик " + i, "Описание")).getId();
+            for (int j = 0; j < SUBTASKS_PER_EPIC; j++) {
+                subtasks.add(manager.createSubtask(new Subtask("Подзадача " + j, "Описание", Duration.ofMinutes(30),
+                        start.plusHours(TASKS + (long) i * SUBTASKS_PER_EPIC + j), epicIds[i])));
+            }
+        }
+
+        HttpTaskServer server = new HttpTaskServer(manager, 0);
+        server.start();
+        try {
+            HttpLoadRunner runner = new HttpLoadRunner("http://localhost:" + server.getPort(), taskIds, epicIds,
+                    subtasks);
+            runner.run(levels[0], 1);
+            System.out.printf("%8s %12s %10s %10s %8s%n", "потоков", "запросов/с", "p50, мс", "p99, мс", "ошибок");
+            for (int level : levels) {
+                runner.run(level, seconds).print(level);
+            }
+            // Время внутри менеджера, без сети и разбора запросов
+            System.out.println();
+            System.out.print(manager.dump());
+        } finally {
+            server.stop();
+        }
+    }
+
+    private Result run(int concurrency, int seconds) throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long startNanos = System.nanoTime();
+        List<Future<Worker>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(executor.submit(() -> new Worker().runUntil(deadline)));
+            }
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        Result result = new Result(elapsedNanos);
+        for (Future<Worker> future : futures) {
+            result.add(future.get());
+        }
+        return result;
+    }
+
+    private HttpRequest nextRequest(ThreadLocalRandom random) {
+        int action = random.nextInt(10);
+        if (action < 7) {
+            return get("/tasks/" + taskIds[random.nextInt(taskIds.length)]);
+        }
+        if (action == 7) {
+            return get("/history");
+        }
+        if (action == 8) {
+            return get("/epics/" + epicIds[random.nextInt(epicIds.length)] + "/subtasks");
+        }
+
+        Subtask saved = subtasks.get(random.nextInt(subtasks.size()));
+        Subtask changed = new Subtask(saved.getName(), "Изменена", Duration.ofMinutes(saved.getDuration()),
+                saved.getStartTime(), saved.getEpicId());
+        changed.setId(saved.getId());
+        changed.setStatus(Status.values()[random.nextInt(Status.values().length)]);
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/subtasks"))
+                .POST(HttpRequest.BodyPublishers.ofString(TaskJson.toJson(changed)))
+                .build();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    // Задержки одного клиентского потока
+    private final class Worker {
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+
+        Worker runUntil(long deadline) throws InterruptedException {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < deadline) {
+                HttpRequest request = nextRequest(random);
+                long start = System.nanoTime();
+                try {
+                    HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                    if (response.statusCode() >= 400) {
+                        errors++;
+                    }
+                } catch (IOException e) {
+                    errors++;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - start;
+            }
+            return this;
+        }
+    }
+
+    private static final class Result {
+        private final long elapsedNanos;
+        private long[] latencies = new long[0];
+        private int errors;
+
+        Result(long elapsedNanos) {
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        void add(Worker worker) {
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + worker.count);
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+            errors += worker.errors;
+        }
+
+        void print(int concurrency) {
+            Arrays.sort(latencies);
+            double requestsPerSecond = latencies.length * 1e9 / elapsedNanos;
+            System.out.printf("%8d %12.0f %10.2f %10.2f %8d%n", concurrency, requestsPerSecond,
+                    percentile(0.50) / 1e6, percentile(0.99) / 1e6, errors);
+        }
+
+        private long percentile(double quantile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            return latencies[(int) Math.min(latencies.length - 1, Math.ceil(quantile * latencies.length) - 1)];
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ru.yandex.practicum;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// HTTP API поверх любого TaskManager. Каждый запрос обрабатывается в своём виртуальном потоке,
+// поэтому запросы к менеджеру идут параллельно и менеджер должен быть потокобезопасным (Managers.getConcurrent)
+public class HttpTaskServer {
+    public static final int PORT = 8080;
+
+    // Без TCP_NODELAY небольшие ответы ждут подтверждения предыдущего пакета, и каждый запрос
+    // задерживается на десятки миллисекунд. Настройка читается при создании первого HttpServer
+    static {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public HttpTaskServer(TaskManager taskManager) throws IOException {
+        this(taskManager, PORT);
+    }
+
+    // Порт 0 - любой свободный, выбранный порт возвращает getPort
+    public HttpTaskServer(TaskManager taskManager, int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.setExecutor(executor);
+        server.createContext("/tasks", new TasksHandler(taskManager));
+        server.createContext("/subtasks", new SubtasksHandler(taskManager));
+        server.createContext("/epics", new EpicsHandler(taskManager));
+        server.createContext("/history", new HistoryHandler(taskManager));
+        server.createContext("/prioritized", new PrioritizedHandler(taskManager));
+        server.createContext("/metrics", new MetricsHandler(taskManager));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    // Остановка ждёт завершения уже принятых запросов
+    public void stop() {
+        server.stop(0);
+        executor.close();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public static void main(String[] args) throws IOException {
+        InstrumentedTaskManager taskManager = Managers.getInstrumented(Managers.getConcurrent());
+        taskManager.registerMBeans("http");
+        HttpTaskServer server = new HttpTaskServer(taskManager);
+        server.start();
+        System.out.println("HTTP-сервер запущен на порту " + server.getPort());
+    }
+}
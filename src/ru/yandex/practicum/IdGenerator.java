@@ -0,0 +1,56 @@
+package ru.yandex.practicum;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Счётчик ID задач: выдача следующего ID и учёт уже занятых ID стоят O(1)
+public class IdGenerator {
+    private final AtomicInteger lastId = new AtomicInteger();
+
+    public int next() {
+        return lastId.incrementAndGet();
+    }
+
+    // Учесть ID, назначенный снаружи (например, при загрузке из файла)
+    public void observe(int id) {
+        lastId.accumulateAndGet(id, Math::max);
+    }
+
+    // Зарезервировать диапазон ID для пакетной загрузки без обращения к общему счётчику
+    public IdRange reserve(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Размер диапазона должен быть положительным.");
+        }
+        int last = lastId.addAndGet(count);
+        return new IdRange(last - count + 1, last);
+    }
+
+    public int getLastId() {
+        return lastId.get();
+    }
+
+    public static class IdRange {
+        private final int last;
+        private int next;
+
+        IdRange(int first, int last) {
+            this.next = first;
+            this.last = last;
+        }
+
+        public boolean hasNext() {
+            return next <= last;
+        }
+
+        public int next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("Диапазон ID исчерпан.");
+            }
+            return next++;
+        }
+
+        public int remaining() {
+            return last - next + 1;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ru.yandex.practicum;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.List;
@@ -9,8 +10,22 @@ public class InMemoryHistoryManager implements HistoryManager {
     private final Node head;
     private final Node tail;
     private final Map<Integer, Node> historyMap;
+    private final int capacity;
+    // Число изменений списка: снимок истории пересобирается, только если оно изменилось
+    private long modCount;
+    private List<Task> snapshot;
+    private long snapshotModCount = -1;
 
     public InMemoryHistoryManager() {
+        this(Integer.MAX_VALUE);
+    }
+
+    // История хранит не больше capacity задач, при переполнении вытесняется самый давний просмотр
+    public InMemoryHistoryManager(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Размер истории должен быть положительным.");
+        }
+        this.capacity = capacity;
         this.historyMap = new HashMap<>();
         this.head = new Node(null);
         this.tail = new Node(null);
@@ -49,7 +64,47 @@ public class InMemoryHistoryManager implements HistoryManager {
         return history;
     }
 
+    @Override
+    public List<Task> getLastViewed(int count) {
+        HistoryManager.checkPageSize(count);
+        List<Task> result = new ArrayList<>(Math.min(count, historyMap.size()));
+        for (Node current = tail.prev; current != head && result.size() < count; current = current.prev) {
+            result.add(current.data);
+        }
+        return result;
+    }
+
+    @Override
+    public List<Task> getHistoryAfter(int cursorId, int limit) {
+        HistoryManager.checkPageSize(limit);
+        Node cursor = cursorId == NO_CURSOR ? head : historyMap.get(cursorId);
+        if (cursor == null) {
+            return new ArrayList<>();
+        }
+
+        List<Task> result = new ArrayList<>(Math.min(limit, historyMap.size()));
+        for (Node current = cursor.next; current != tail && result.size() < limit; current = current.next) {
+            result.add(current.data);
+        }
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return historyMap.size();
+    }
+
+    @Override
+    public List<Task> getHistorySnapshot() {
+        if (snapshotModCount != modCount) {
+            snapshot = Collections.unmodifiableList(getHistory());
+            snapshotModCount = modCount;
+        }
+        return snapshot;
+    }
+
     private void linkLast(Node node) {
+        modCount++;
         node.prev = tail.prev;
         node.next = tail;
         tail.prev.next = node;
@@ -57,6 +112,7 @@ public class InMemoryHistoryManager implements HistoryManager {
     }
 
     private void removeNode(Node node) {
+        modCount++;
         node.prev.next = node.next;
         node.next.prev = node.prev;
     }
@@ -65,6 +121,11 @@ public class InMemoryHistoryManager implements HistoryManager {
         Node newNode = new Node(task);
         linkLast(newNode);
         historyMap.put(task.getId(), newNode);
+        if (historyMap.size() > capacity) {
+            Node eldest = head.next;
+            removeNode(eldest);
+            historyMap.remove(eldest.data.getId());
+        }
     }
 
     private static class Node {
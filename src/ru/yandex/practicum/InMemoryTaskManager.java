@@ -1,22 +1,38 @@
 package ru.yandex.practicum;
 
 import java.time.Duration;
-import java.time.temporal.ChronoUnit;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 
 public class InMemoryTaskManager implements TaskManager {
-    private int nextId = 0;
-    private final Map<Integer, Task> tasks = new HashMap<>();
-    private final Map<Integer, Epic> epics = new HashMap<>();
-    private final Map<Integer, Subtask> subtasks = new HashMap<>();
-    private final HistoryManager historyManager = Managers.getDefaultHistory();
-    private final TreeSet<Task> prioritizedTasks = new TreeSet<>(Task::compareTo);
+    private final IdGenerator idGenerator = new IdGenerator();
+    private final IntObjectHashMap<Task> tasks = new IntObjectHashMap<>();
+    private final IntObjectHashMap<Epic> epics = new IntObjectHashMap<>();
+    private final IntObjectHashMap<Subtask> subtasks = new IntObjectHashMap<>();
+    private final IntObjectHashMap<EpicAggregate> epicAggregates = new IntObjectHashMap<>();
+    private final HistoryManager historyManager;
+    private final HistoryPolicy historyPolicy;
+    private final TaskTimeIndex timeIndex = new TaskTimeIndex();
+
+    public InMemoryTaskManager() {
+        this(Managers.getDefaultHistory());
+    }
+
+    public InMemoryTaskManager(HistoryManager historyManager) {
+        this(historyManager, HistoryPolicy.SINGLE_READS);
+    }
+
+    public InMemoryTaskManager(HistoryManager historyManager, HistoryPolicy historyPolicy) {
+        this.historyManager = historyManager;
+        this.historyPolicy = historyPolicy;
+    }
 
     // Создание задач
     @Override
     public Task createTask(Task task) {
         if (isCrossTasks(task)) {
-            throw new IllegalArgumentException("Задача имеет пересечение по времени");
+            throw new TaskOverlapException("Задача имеет пересечение по времени");
         }
 
         int id = task.getId();
@@ -30,6 +46,7 @@ public class InMemoryTaskManager implements TaskManager {
         }
 
         tasks.put(id, task);
+        timeIndex.add(task);
         updateNextId(id);
         return task;
     }
@@ -43,6 +60,7 @@ public class InMemoryTaskManager implements TaskManager {
         }
 
         epics.put(id, epic);
+        epicAggregates.computeIfAbsent(id, key -> new EpicAggregate());
         updateNextId(id);
         return epic;
     }
@@ -50,7 +68,7 @@ public class InMemoryTaskManager implements TaskManager {
     @Override
     public Subtask createSubtask(Subtask subtask) {
         if (isCrossTasks(subtask)) {
-            throw new IllegalArgumentException("Подзадача имеет пересечение по времени");
+            throw new TaskOverlapException("Подзадача имеет пересечение по времени");
         }
 
         if (!epics.containsKey(subtask.getEpicId())) {
@@ -64,66 +82,74 @@ public class InMemoryTaskManager implements TaskManager {
         }
 
         subtasks.put(id, subtask);
+        timeIndex.add(subtask);
 
         epics.get(subtask.getEpicId()).addSubtaskId(id);
-        updateEpicStatus(subtask.getEpicId());
-        updateEpicTimes(subtask.getEpicId());
+        epicAggregates.get(subtask.getEpicId()).put(subtask);
+        refreshEpic(subtask.getEpicId());
         updateNextId(id);
         return subtask;
     }
 
     // Обновление задач
     @Override
-    public void updateTask(Task task) {
+    public Task updateTask(Task task) {
+        if (!tasks.containsKey(task.getId())) {
+            return null;
+        }
         if (isCrossTasks(task)) {
-            throw new IllegalArgumentException("Задача имеет пересечение по времени");
+            throw new TaskOverlapException("Задача имеет пересечение по времени");
         }
 
-        if (tasks.containsKey(task.getId())) {
-            tasks.put(task.getId(), task);
-        }
+        tasks.put(task.getId(), task);
+        timeIndex.add(task);
+        return task;
     }
 
     @Override
-    public void updateEpic(Epic epic) {
+    public Epic updateEpic(Epic epic) {
         Epic savedEpic = epics.get(epic.getId());
-        if (savedEpic != null) {
-            savedEpic.setName(epic.getName());
-            savedEpic.setDescription(epic.getDescription());
+        if (savedEpic == null) {
+            return null;
         }
+        savedEpic.setName(epic.getName());
+        savedEpic.setDescription(epic.getDescription());
+        return savedEpic;
     }
 
     @Override
-    public void updateSubtask(Subtask subtask) {
+    public Subtask updateSubtask(Subtask subtask) {
+        Subtask savedSubtask = subtasks.get(subtask.getId());
+        if (savedSubtask == null) {
+            return null;
+        }
         if (isCrossTasks(subtask)) {
-            throw new IllegalArgumentException("Задача имеет пересечение по времени");
+            throw new TaskOverlapException("Задача имеет пересечение по времени");
         }
 
-        Subtask savedSubtask = subtasks.get(subtask.getId());
-        if (savedSubtask != null) {
-            savedSubtask.setName(subtask.getName());
-            savedSubtask.setDescription(subtask.getDescription());
-            savedSubtask.setStatus(subtask.getStatus());
-            updateEpicStatus(savedSubtask.getEpicId());
-            updateEpicTimes(savedSubtask.getEpicId());
-        }
+        savedSubtask.setName(subtask.getName());
+        savedSubtask.setDescription(subtask.getDescription());
+        savedSubtask.setStatus(subtask.getStatus());
+        epicAggregates.get(savedSubtask.getEpicId()).put(savedSubtask);
+        refreshEpic(savedSubtask.getEpicId());
+        return savedSubtask;
     }
 
     // Удаление всех задач
     @Override
     public void deleteAllTasks() {
-        tasks.values().forEach(task -> {
-            historyManager.remove(task.getId());
-            prioritizedTasks.remove(task);
+        tasks.forEachKey(id -> {
+            historyManager.remove(id);
+            timeIndex.remove(id);
         });
         tasks.clear();
     }
 
     @Override
     public void deleteAllEpics() {
-        subtasks.values().forEach(subtask -> {
-            historyManager.remove(subtask.getId());
-            prioritizedTasks.remove(subtask);
+        subtasks.forEachKey(id -> {
+            historyManager.remove(id);
+            timeIndex.remove(id);
         });
         epics.values().forEach(epic -> {
             historyManager.remove(epic.getId());
@@ -131,47 +157,53 @@ public class InMemoryTaskManager implements TaskManager {
 
         epics.clear();
         subtasks.clear();
+        epicAggregates.clear();
     }
 
     @Override
     public void deleteAllSubtasks() {
-        subtasks.values().forEach(subtask -> {
-            historyManager.remove(subtask.getId());
-            prioritizedTasks.remove(subtask);
+        subtasks.forEachKey(id -> {
+            historyManager.remove(id);
+            timeIndex.remove(id);
         });
         subtasks.clear();
 
 
         epics.values().forEach(epic -> {
             epic.getSubtaskIds().clear();
-            updateEpicStatus(epic.getId());
-            updateEpicTimes(epic.getId());
+            epicAggregates.get(epic.getId()).clear();
+            refreshEpic(epic.getId());
         });
     }
 
     // Получение задач по ID
     @Override
     public Task getTask(int id) {
-        historyManager.add(tasks.get(id));
-        return tasks.get(id);
+        return addToHistory(tasks.get(id));
     }
 
     @Override
     public Epic getEpic(int id) {
-        historyManager.add(epics.get(id));
-        return epics.get(id);
+        return addToHistory(epics.get(id));
     }
 
     @Override
     public Subtask getSubtask(int id) {
-        historyManager.add(subtasks.get(id));
-        return subtasks.get(id);
+        return addToHistory(subtasks.get(id));
+    }
+
+    // Несуществующий ID не попадает в историю, а возвращается как null
+    private <T extends Task> T addToHistory(T task) {
+        if (task != null) {
+            historyManager.add(task);
+        }
+        return task;
     }
 
     // Удаление по ID
     @Override
     public void deleteTask(int id) {
-        prioritizedTasks.remove(tasks.get(id));
+        timeIndex.remove(id);
         tasks.remove(id);
         historyManager.remove(id);
     }
@@ -179,10 +211,11 @@ public class InMemoryTaskManager implements TaskManager {
     @Override
     public void deleteEpic(int id) {
         Epic epic = epics.remove(id);
+        epicAggregates.remove(id);
         if (epic != null) {
-            epic.getSubtaskIds().forEach(subtaskId -> {
+            epic.subtaskIdList().forEachInt(subtaskId -> {
                 historyManager.remove(subtaskId);
-                prioritizedTasks.remove(subtasks.get(subtaskId));
+                timeIndex.remove(subtaskId);
                 subtasks.remove(subtaskId);
             });
         }
@@ -191,62 +224,66 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public void deleteSubtask(int id) {
-        prioritizedTasks.remove(subtasks.get(id));
+        timeIndex.remove(id);
         Subtask subtask = subtasks.remove(id);
         if (subtask != null) {
             Epic epic = epics.get(subtask.getEpicId());
             if (epic != null) {
                 epic.removeSubtaskId(id);
-                updateEpicStatus(epic.getId());
-                updateEpicTimes(epic.getId());
+                epicAggregates.get(epic.getId()).remove(id);
+                refreshEpic(epic.getId());
             }
         }
         historyManager.remove(id);
     }
 
     @Override
-    public TreeSet<Task> getPrioritizedTasks() {
-        prioritizedTasks.addAll(tasks.values()
-                .stream()
-                .filter(task -> task.getStartTime() != null)
-                .toList());
-        prioritizedTasks.addAll(subtasks.values()
-                .stream()
-                .filter(subtask -> subtask.getStartTime() != null)
-                .toList());
+    public Collection<Task> getPrioritizedTasks() {
+        return timeIndex.tasksView();
+    }
 
-        return prioritizedTasks;
+    @Override
+    public List<Task> getOverlappingTasks(LocalDateTime from, LocalDateTime to) {
+        return timeIndex.findOverlapping(from, to);
     }
 
     private boolean isCrossTasks(Task newTask) {
-        if (newTask.getStartTime() == null) {
-            return false;
-        }
-
-        return getPrioritizedTasks().stream()
-                .anyMatch(newTask::crossTasks);
-
+        return timeIndex.hasOverlap(newTask);
     }
 
     // Получение списков задач
     @Override
     public List<Task> getAllTasks() {
-        tasks.values().forEach(historyManager::add);
+        addAllToHistory(tasks.values());
         return new ArrayList<>(tasks.values());
     }
 
     @Override
     public ArrayList<Epic> getAllEpics() {
-        epics.values().forEach(historyManager::add);
+        addAllToHistory(epics.values());
         return new ArrayList<>(epics.values());
     }
 
     @Override
     public ArrayList<Subtask> getAllSubtasks() {
-        subtasks.values().forEach(historyManager::add);
+        addAllToHistory(subtasks.values());
         return new ArrayList<>(subtasks.values());
     }
 
+    @Override
+    public void forEachTask(Consumer<? super Task> action) {
+        tasks.values().forEach(action);
+        epics.values().forEach(action);
+        subtasks.values().forEach(action);
+    }
+
+    // Списки попадают в историю только при явно выбранной политике, иначе один список вытеснил бы всю историю
+    private void addAllToHistory(Collection<? extends Task> listed) {
+        if (historyPolicy == HistoryPolicy.ALL_READS) {
+            listed.forEach(historyManager::add);
+        }
+    }
+
     // Получение подзадач эпика
     @Override
     public List<Subtask> getEpicSubtasks(int epicId) {
@@ -255,89 +292,144 @@ public class InMemoryTaskManager implements TaskManager {
             return new ArrayList<>();
         }
 
-        return epic.getSubtaskIds().stream()
-                .map(subtasks::get)
-                .filter(Objects::nonNull)
-                .toList();
-    }
-
-    private void updateNextId(int value) {
-        if (value > nextId) nextId = value;
-    }
-
-    private <T extends Task> T setNextId(T obj) {
-        findMaxId();
-        obj.setId(++nextId);
-        return obj;
+        IntArrayList subtaskIds = epic.subtaskIdList();
+        List<Subtask> result = new ArrayList<>(subtaskIds.size());
+        for (int i = 0; i < subtaskIds.size(); i++) {
+            Subtask subtask = subtasks.get(subtaskIds.getInt(i));
+            if (subtask != null) {
+                result.add(subtask);
+            }
+        }
+        return result;
     }
 
-    private void findMaxId() {
-        int maxId = 0;
-
-        if (!epics.isEmpty()) {
-            maxId = Math.max(maxId, Collections.max(epics.keySet()));
+    // Пакетное восстановление пустого менеджера (например, при загрузке из файла):
+    // задачи кладутся в хранилища напрямую, индексы и данные эпиков строятся один раз в конце
+    protected void restore(List<Task> loadedTasks) {
+        if (!tasks.isEmpty() || !epics.isEmpty() || !subtasks.isEmpty()) {
+            throw new IllegalStateException("Восстановление возможно только в пустой менеджер.");
         }
-        if (!subtasks.isEmpty()) {
-            maxId = Math.max(maxId, Collections.max(subtasks.keySet()));
+
+        List<Task> timedTasks = new ArrayList<>();
+        for (Task task : loadedTasks) {
+            int id = task.getId();
+            if (containsId(id)) {
+                throw new IllegalArgumentException("Задача с таким ID уже существует.");
+            }
+            if (task instanceof Epic epic) {
+                epics.put(id, epic);
+            } else if (task instanceof Subtask subtask) {
+                subtasks.put(id, subtask);
+            } else {
+                tasks.put(id, task);
+            }
+            if (!(task instanceof Epic) && task.getStartTime() != null) {
+                timedTasks.add(task);
+            }
+            updateNextId(id);
         }
-        if (!tasks.isEmpty()) {
-            maxId = Math.max(maxId, Collections.max(tasks.keySet()));
+
+        for (Subtask subtask : subtasks.values()) {
+            Epic epic = epics.get(subtask.getEpicId());
+            if (epic == null) {
+                throw new IllegalArgumentException("Эпика не существует");
+            }
+            epic.addSubtaskId(subtask.getId());
+            epicAggregates.computeIfAbsent(epic.getId(), key -> new EpicAggregate()).put(subtask);
         }
 
-        nextId = maxId;
-    }
+        timedTasks.sort(Comparator.naturalOrder());
+        checkNoCrossTasks(timedTasks);
+        timedTasks.forEach(timeIndex::add);
 
-    // Обновление статуса эпика
-    private void updateEpicStatus(int epicId) {
-        Epic epic = epics.get(epicId);
-        ArrayList<Integer> subtaskIds = epic.getSubtaskIds();
+        epics.forEachKey(epicId -> {
+            epicAggregates.computeIfAbsent(epicId, key -> new EpicAggregate());
+            refreshEpic(epicId);
+        });
+    }
 
-        if (subtaskIds.isEmpty()) {
-            epic.setStatus(Status.NEW);
-            return;
+    // Проверка пересечений одним проходом по задачам, отсортированным по началу
+    private void checkNoCrossTasks(List<Task> sortedTasks) {
+        long maxEndBefore = Long.MIN_VALUE;
+        int i = 0;
+        while (i < sortedTasks.size()) {
+            long groupStart = sortedTasks.get(i).getStartKey();
+            long groupMaxEnd = groupStart;
+            boolean hasLongTask = false;
+            for (; i < sortedTasks.size() && sortedTasks.get(i).getStartKey() == groupStart; i++) {
+                long end = sortedTasks.get(i).getEndKey();
+                // Задача пересекается с более ранней, если та заканчивается позже её начала,
+                // а задачи ненулевой длительности с одинаковым началом пересекаются между собой
+                if (maxEndBefore > groupStart || (end > groupStart && hasLongTask)) {
+                    throw new TaskOverlapException("Задача имеет пересечение по времени");
+                }
+                hasLongTask |= end > groupStart;
+                groupMaxEnd = Math.max(groupMaxEnd, end);
+            }
+            maxEndBefore = Math.max(maxEndBefore, groupMaxEnd);
         }
+    }
 
-        boolean allDone = true;
-        boolean allNew = true;
+    // Все задачи, эпики и подзадачи без записи в историю просмотров
+    protected List<Task> collectAllTasks() {
+        List<Task> allTasks = new ArrayList<>(tasks.size() + epics.size() + subtasks.size());
+        forEachTask(allTasks::add);
+        return allTasks;
+    }
 
-        for (int subtaskId : subtaskIds) {
-            Status status = subtasks.get(subtaskId).getStatus();
-            if (status != Status.DONE) allDone = false;
-            if (status != Status.NEW) allNew = false;
-        }
+    @Override
+    public int getTaskCount(TaskType type) {
+        return switch (type) {
+            case TASK -> tasks.size();
+            case EPIC -> epics.size();
+            case SUBTASK -> subtasks.size();
+        };
+    }
+
+    @Override
+    public int getHistorySize() {
+        return historyManager.size();
+    }
 
-        if (allDone) {
-            epic.setStatus(Status.DONE);
-        } else if (allNew) {
-            epic.setStatus(Status.NEW);
-        } else {
-            epic.setStatus(Status.IN_PROGRESS);
+    @Override
+    public TaskType getTaskType(int id) {
+        if (tasks.containsKey(id)) {
+            return TaskType.TASK;
+        } else if (epics.containsKey(id)) {
+            return TaskType.EPIC;
+        } else if (subtasks.containsKey(id)) {
+            return TaskType.SUBTASK;
         }
+        return null;
     }
 
-    private void updateEpicTimes(int epicId) {
-        Epic epic = epics.get(epicId);
-        ArrayList<Integer> subtaskIds = epic.getSubtaskIds();
+    protected boolean containsId(int id) {
+        return tasks.containsKey(id) || epics.containsKey(id) || subtasks.containsKey(id);
+    }
 
-        if (subtaskIds.isEmpty()) {
-            epic.setDuration(Duration.ZERO);
-            epic.setStartTime(null);
-            epic.setEndTime(null);
-            return;
-        }
+    // Резервирование диапазона ID для пакетного создания задач
+    public IdGenerator.IdRange reserveIds(int count) {
+        return idGenerator.reserve(count);
+    }
+
+    private void updateNextId(int value) {
+        idGenerator.observe(value);
+    }
 
-        epic.setDuration(
-                Duration.of(
-                subtaskIds.stream()
-                        .map(id -> subtasks.get(id).getDuration())
-                        .mapToLong(Long::longValue).sum(), ChronoUnit.MINUTES));
+    private <T extends Task> T setNextId(T obj) {
+        obj.setId(idGenerator.next());
+        return obj;
+    }
 
-        epic.setStartTime(
-                subtaskIds.stream()
-                        .map(id -> subtasks.get(id).getStartTime())
-                        .min(Comparator.naturalOrder()).orElse(null));
+    // Статус и время эпика берутся из его сводных данных, которые уже обновлены приращением
+    private void refreshEpic(int epicId) {
+        Epic epic = epics.get(epicId);
+        EpicAggregate aggregate = epicAggregates.get(epicId);
 
-        epic.setEndTime(epic.getStartTime().plusMinutes(epic.getDuration()));
+        epic.setStatus(aggregate.getStatus());
+        epic.setDuration(Duration.ofMinutes(aggregate.getDurationMinutes()));
+        epic.setStartTime(aggregate.getStartTime());
+        epic.setEndTime(aggregate.getEndTime());
     }
 
     @Override
@@ -345,4 +437,19 @@ public class InMemoryTaskManager implements TaskManager {
         return historyManager.getHistory();
     }
 
+    @Override
+    public List<Task> getLastViewed(int count) {
+        return historyManager.getLastViewed(count);
+    }
+
+    @Override
+    public List<Task> getHistoryAfter(int cursorId, int limit) {
+        return historyManager.getHistoryAfter(cursorId, limit);
+    }
+
+    @Override
+    public List<Task> getHistorySnapshot() {
+        return historyManager.getHistorySnapshot();
+    }
+
 }
@@ -0,0 +1,348 @@
+package ru.yandex.practicum;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Менеджер с метриками поверх любого другого: для каждой операции считаются вызовы, ошибки и гистограмма задержек.
+// Запись метрики - два вызова nanoTime и несколько атомарных инкрементов, поэтому обёртку можно держать включённой.
+// Метрики доступны текстовым отчётом dump() и через JMX после registerMBeans
+public class InstrumentedTaskManager implements TaskManager, InstrumentedTaskManagerMBean {
+    private static final String DOMAIN = "ru.yandex.practicum";
+
+    private final TaskManager delegate;
+    private final StorageMetrics storage;
+    private final List<OperationMetrics> operations = new ArrayList<>();
+    private final List<ObjectName> registeredNames = new ArrayList<>();
+
+    private final OperationMetrics createTask = operation("createTask");
+    private final OperationMetrics createEpic = operation("createEpic");
+    private final OperationMetrics createSubtask = operation("createSubtask");
+    private final OperationMetrics updateTask = operation("updateTask");
+    private final OperationMetrics updateEpic = operation("updateEpic");
+    private final OperationMetrics updateSubtask = operation("updateSubtask");
+    private final OperationMetrics deleteAllTasks = operation("deleteAllTasks");
+    private final OperationMetrics deleteAllEpics = operation("deleteAllEpics");
+    private final OperationMetrics deleteAllSubtasks = operation("deleteAllSubtasks");
+    private final OperationMetrics getTask = operation("getTask");
+    private final OperationMetrics getEpic = operation("getEpic");
+    private final OperationMetrics getSubtask = operation("getSubtask");
+    private final OperationMetrics getTaskType = operation("getTaskType");
+    private final OperationMetrics deleteTask = operation("deleteTask");
+    private final OperationMetrics deleteEpic = operation("deleteEpic");
+    private final OperationMetrics deleteSubtask = operation("deleteSubtask");
+    private final OperationMetrics getAllTasks = operation("getAllTasks");
+    private final OperationMetrics getAllEpics = operation("getAllEpics");
+    private final OperationMetrics getAllSubtasks = operation("getAllSubtasks");
+    private final OperationMetrics forEachTask = operation("forEachTask");
+    private final OperationMetrics getPrioritizedTasks = operation("getPrioritizedTasks");
+    private final OperationMetrics getOverlappingTasks = operation("getOverlappingTasks");
+    private final OperationMetrics getEpicSubtasks = operation("getEpicSubtasks");
+    private final OperationMetrics getHistory = operation("getHistory");
+    private final OperationMetrics getLastViewed = operation("getLastViewed");
+    private final OperationMetrics getHistoryAfter = operation("getHistoryAfter");
+    private final OperationMetrics getHistorySnapshot = operation("getHistorySnapshot");
+
+    public InstrumentedTaskManager(TaskManager delegate) {
+        this(delegate, null);
+    }
+
+    // storage - метрики файлового хранилища под delegate, null если хранилища нет
+    public InstrumentedTaskManager(TaskManager delegate, StorageMetrics storage) {
+        this.delegate = delegate;
+        this.storage = storage;
+    }
+
+    // Создание задач
+    @Override
+    public Task createTask(Task task) {
+        return timed(createTask, () -> delegate.createTask(task));
+    }
+
+    @Override
+    public Epic createEpic(Epic epic) {
+        return timed(createEpic, () -> delegate.createEpic(epic));
+    }
+
+    @Override
+    public Subtask createSubtask(Subtask subtask) {
+        return timed(createSubtask, () -> delegate.createSubtask(subtask));
+    }
+
+    // Обновление задач
+    @Override
+    public Task updateTask(Task task) {
+        return timed(updateTask, () -> delegate.updateTask(task));
+    }
+
+    @Override
+    public Epic updateEpic(Epic epic) {
+        return timed(updateEpic, () -> delegate.updateEpic(epic));
+    }
+
+    @Override
+    public Subtask updateSubtask(Subtask subtask) {
+        return timed(updateSubtask, () -> delegate.updateSubtask(subtask));
+    }
+
+    // Удаление всех задач
+    @Override
+    public void deleteAllTasks() {
+        timed(deleteAllTasks, delegate::deleteAllTasks);
+    }
+
+    @Override
+    public void deleteAllEpics() {
+        timed(deleteAllEpics, delegate::deleteAllEpics);
+    }
+
+    @Override
+    public void deleteAllSubtasks() {
+        timed(deleteAllSubtasks, delegate::deleteAllSubtasks);
+    }
+
+    // Получение задач по ID
+    @Override
+    public Task getTask(int id) {
+        return timed(getTask, () -> delegate.getTask(id));
+    }
+
+    @Override
+    public Epic getEpic(int id) {
+        return timed(getEpic, () -> delegate.getEpic(id));
+    }
+
+    @Override
+    public Subtask getSubtask(int id) {
+        return timed(getSubtask, () -> delegate.getSubtask(id));
+    }
+
+    @Override
+    public TaskType getTaskType(int id) {
+        return timed(getTaskType, () -> delegate.getTaskType(id));
+    }
+
+    // Удаление по ID
+    @Override
+    public void deleteTask(int id) {
+        timed(deleteTask, () -> delegate.deleteTask(id));
+    }
+
+    @Override
+    public void deleteEpic(int id) {
+        timed(deleteEpic, () -> delegate.deleteEpic(id));
+    }
+
+    @Override
+    public void deleteSubtask(int id) {
+        timed(deleteSubtask, () -> delegate.deleteSubtask(id));
+    }
+
+    // Получение списков задач
+    @Override
+    public List<Task> getAllTasks() {
+        return timed(getAllTasks, delegate::getAllTasks);
+    }
+
+    @Override
+    public List<Epic> getAllEpics() {
+        return timed(getAllEpics, delegate::getAllEpics);
+    }
+
+    @Override
+    public List<Subtask> getAllSubtasks() {
+        return timed(getAllSubtasks, delegate::getAllSubtasks);
+    }
+
+    @Override
+    public void forEachTask(Consumer<? super Task> action) {
+        timed(forEachTask, () -> delegate.forEachTask(action));
+    }
+
+    // Время получения представления, обход идёт уже после возврата и сюда не входит
+    @Override
+    public Collection<Task> getPrioritizedTasks() {
+        return timed(getPrioritizedTasks, delegate::getPrioritizedTasks);
+    }
+
+    @Override
+    public List<Task> getOverlappingTasks(LocalDateTime from, LocalDateTime to) {
+        return timed(getOverlappingTasks, () -> delegate.getOverlappingTasks(from, to));
+    }
+
+    // Получение подзадач эпика
+    @Override
+    public List<Subtask> getEpicSubtasks(int epicId) {
+        return timed(getEpicSubtasks, () -> delegate.getEpicSubtasks(epicId));
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return timed(getHistory, delegate::getHistory);
+    }
+
+    @Override
+    public List<Task> getLastViewed(int count) {
+        return timed(getLastViewed, () -> delegate.getLastViewed(count));
+    }
+
+    @Override
+    public List<Task> getHistoryAfter(int cursorId, int limit) {
+        return timed(getHistoryAfter, () -> delegate.getHistoryAfter(cursorId, limit));
+    }
+
+    @Override
+    public List<Task> getHistorySnapshot() {
+        return timed(getHistorySnapshot, delegate::getHistorySnapshot);
+    }
+
+    // Метрики всех операций в порядке объявления
+    public List<OperationMetrics> getOperations() {
+        return List.copyOf(operations);
+    }
+
+    public StorageMetrics getStorageMetrics() {
+        return storage;
+    }
+
+    // Размеры хранилищ берутся у менеджера за O(1) и не замеряются: их читают сами метрики
+    @Override
+    public int getTaskCount(TaskType type) {
+        return delegate.getTaskCount(type);
+    }
+
+    @Override
+    public int getTaskCount() {
+        return delegate.getTaskCount(TaskType.TASK);
+    }
+
+    @Override
+    public int getEpicCount() {
+        return delegate.getTaskCount(TaskType.EPIC);
+    }
+
+    @Override
+    public int getSubtaskCount() {
+        return delegate.getTaskCount(TaskType.SUBTASK);
+    }
+
+    @Override
+    public int getHistorySize() {
+        return delegate.getHistorySize();
+    }
+
+    // Отчёт по операциям, которые вызывались хотя бы раз, размеры хранилищ и метрики файла
+    @Override
+    public String dump() {
+        StringBuilder builder = new StringBuilder();
+        for (OperationMetrics operation : operations) {
+            if (operation.getCount() > 0) {
+                builder.append(operation.format()).append('\n');
+            }
+        }
+        builder.append(String.format("store tasks=%d epics=%d subtasks=%d history=%d%n",
+                getTaskCount(), getEpicCount(), getSubtaskCount(), getHistorySize()));
+        if (storage != null) {
+            builder.append(storage.format()).append('\n');
+            for (OperationMetrics operation : storage.operations()) {
+                if (operation.getCount() > 0) {
+                    builder.append(operation.format()).append('\n');
+                }
+            }
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public void reset() {
+        for (OperationMetrics operation : operations) {
+            operation.reset();
+        }
+        if (storage != null) {
+            for (OperationMetrics operation : storage.operations()) {
+                operation.reset();
+            }
+        }
+    }
+
+    // Регистрация в платформенном MBeanServer под именем ru.yandex.practicum:type=TaskManager,name=<name>
+    // и по MBean на каждую операцию. Прежняя регистрация с тем же именем заменяется
+    public synchronized void registerMBeans(String name) {
+        unregisterMBeans();
+        String prefix = DOMAIN + ":type=TaskManager,name=" + ObjectName.quote(name);
+        register(prefix, this);
+        for (OperationMetrics operation : operations) {
+            register(prefix + ",operation=" + operation.getName(), operation);
+        }
+        if (storage != null) {
+            register(prefix + ",component=storage", storage);
+            for (OperationMetrics operation : storage.operations()) {
+                register(prefix + ",component=storage,operation=" + operation.getName(), operation);
+            }
+        }
+    }
+
+    public synchronized void unregisterMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName objectName : registeredNames) {
+            try {
+                if (server.isRegistered(objectName)) {
+                    server.unregisterMBean(objectName);
+                }
+            } catch (JMException e) {
+                // MBean уже снят другим кодом
+            }
+        }
+        registeredNames.clear();
+    }
+
+    private void register(String objectName, Object bean) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(objectName);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(bean, name);
+            registeredNames.add(name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Не удалось зарегистрировать MBean " + objectName + ".", e);
+        }
+    }
+
+    private OperationMetrics operation(String name) {
+        OperationMetrics operation = new OperationMetrics(name);
+        operations.add(operation);
+        return operation;
+    }
+
+    private <T> T timed(OperationMetrics operation, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            T result = action.get();
+            operation.record(System.nanoTime() - start);
+            return result;
+        } catch (RuntimeException e) {
+            operation.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    private void timed(OperationMetrics operation, Runnable action) {
+        long start = System.nanoTime();
+        try {
+            action.run();
+            operation.record(System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            operation.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ru.yandex.practicum;
+
+// Атрибуты JMX менеджера с метриками: размеры хранилищ и текстовый отчёт
+public interface InstrumentedTaskManagerMBean {
+    int getTaskCount();
+
+    int getEpicCount();
+
+    int getSubtaskCount();
+
+    int getHistorySize();
+
+    String dump();
+
+    void reset();
+}
@@ -0,0 +1,231 @@
+package ru.yandex.practicum;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.function.IntConsumer;
+
+// Список int на массиве примитивов. Снаружи это обычный List<Integer>, а методы с суффиксом Int
+// добавляют, ищут и удаляют значения без упаковки в Integer.
+// removeInt работает за O(1) в среднем: при первом вызове строится индекс значение -> позиция,
+// а удалённое значение оставляет в массиве дыру. Дыры убираются одним проходом перед чтением по индексу
+// или обходом, а также когда их больше половины массива. Так удаление подзадач по одной из большого эпика
+// не сдвигает массив на каждом шаге, а порядок оставшихся значений сохраняется.
+// Индекс ведётся, только пока значения не повторяются; изменения по индексу его сбрасывают.
+// В коротком списке просмотр дешевле индекса, поэтому индекс строится начиная с INDEX_THRESHOLD значений.
+// Как и у ArrayList, одновременные чтения без записи безопасны (на это опирается блокировка чтения
+// ConcurrentTaskManager), хотя чтение и уплотняет массив: уплотнение идёт под монитором списка,
+// а счётчик дыр volatile, поэтому увидевший ноль дыр видит и уплотнённый массив
+public class IntArrayList extends AbstractList<Integer> implements RandomAccess {
+    static final int INDEX_THRESHOLD = 128;
+
+    private int[] elements;
+    // Занятые ячейки массива вместе с дырами
+    private int size;
+    private volatile int holes;
+    // Позиция каждого значения; ячейка - дыра, если позиция её значения в индексе другая
+    private IntLongHashMap positions;
+
+    public IntArrayList() {
+        this(4);
+    }
+
+    public IntArrayList(int capacity) {
+        elements = new int[capacity];
+    }
+
+    @Override
+    public int size() {
+        compact();
+        return size;
+    }
+
+    @Override
+    public Integer get(int index) {
+        return getInt(index);
+    }
+
+    public int getInt(int index) {
+        compact();
+        checkIndex(index);
+        return elements[index];
+    }
+
+    @Override
+    public Integer set(int index, Integer value) {
+        return setInt(index, value);
+    }
+
+    public int setInt(int index, int value) {
+        dropPositions();
+        checkIndex(index);
+        int previous = elements[index];
+        elements[index] = value;
+        return previous;
+    }
+
+    @Override
+    public boolean add(Integer value) {
+        addInt(value);
+        return true;
+    }
+
+    public void addInt(int value) {
+        if (positions != null && positions.containsKey(value)) {
+            dropPositions();
+        }
+        if (size == elements.length) {
+            compact();
+        }
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(4, size * 2));
+        }
+        if (positions != null) {
+            positions.put(value, size);
+        }
+        elements[size++] = value;
+        modCount++;
+    }
+
+    @Override
+    public void add(int index, Integer value) {
+        addInt(index, value);
+    }
+
+    // Вставка со сдвигом последующих значений вправо
+    public void addInt(int index, int value) {
+        dropPositions();
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Индекс " + index + " вне списка размера " + size);
+        }
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(4, size * 2));
+        }
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+        elements[index] = value;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public Integer remove(int index) {
+        dropPositions();
+        checkIndex(index);
+        int value = elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+        modCount++;
+        return value;
+    }
+
+    // Удаление первого вхождения значения с сохранением порядка остальных
+    public boolean removeInt(int value) {
+        if (positions == null && (size < INDEX_THRESHOLD || !buildPositions())) {
+            // Короткий список или значения повторяются: первое вхождение ищется с начала
+            int index = indexOfInt(value);
+            if (index < 0) {
+                return false;
+            }
+            remove(index);
+            return true;
+        }
+
+        if (positions.remove(value) == IntLongHashMap.NO_VALUE) {
+            return false;
+        }
+        holes++;
+        modCount++;
+        if (holes > size / 2) {
+            compact();
+        }
+        return true;
+    }
+
+    public int indexOfInt(int value) {
+        compact();
+        if (positions != null) {
+            return (int) positions.get(value);
+        }
+        for (int i = 0; i < size; i++) {
+            if (elements[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean containsInt(int value) {
+        compact();
+        return positions != null ? positions.containsKey(value) : indexOfInt(value) >= 0;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        holes = 0;
+        if (positions != null) {
+            positions.clear();
+        }
+        modCount++;
+    }
+
+    public void forEachInt(IntConsumer action) {
+        compact();
+        for (int i = 0; i < size; i++) {
+            action.accept(elements[i]);
+        }
+    }
+
+    public int[] toIntArray() {
+        compact();
+        return Arrays.copyOf(elements, size);
+    }
+
+    // Индекс строится, только если значения не повторяются
+    private boolean buildPositions() {
+        IntLongHashMap built = new IntLongHashMap(size);
+        for (int i = 0; i < size; i++) {
+            if (built.containsKey(elements[i])) {
+                return false;
+            }
+            built.put(elements[i], i);
+        }
+        positions = built;
+        return true;
+    }
+
+    // Без индекса дыры не отличить от значений, поэтому перед сбросом индекса они убираются
+    private void dropPositions() {
+        compact();
+        positions = null;
+    }
+
+    private void compact() {
+        if (holes != 0) {
+            compactHoles();
+        }
+    }
+
+    private synchronized void compactHoles() {
+        if (holes == 0) {
+            return;
+        }
+        int live = 0;
+        for (int i = 0; i < size; i++) {
+            int value = elements[i];
+            if (positions.get(value) == i) {
+                elements[live] = value;
+                positions.put(value, live);
+                live++;
+            }
+        }
+        size = live;
+        holes = 0;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Индекс " + index + " вне списка размера " + size);
+        }
+    }
+}
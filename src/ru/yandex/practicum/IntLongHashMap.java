@@ -0,0 +1,131 @@
+package ru.yandex.practicum;
+
+import java.util.Arrays;
+
+// Отображение int -> long на массивах с открытой адресацией, без упаковки ключей и значений в объекты.
+// Значения должны быть неотрицательными: -1 означает отсутствие ключа
+public class IntLongHashMap {
+    static final long NO_VALUE = -1;
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private int[] keys;
+    private long[] values;
+    private int size;
+
+    public IntLongHashMap() {
+        this(16);
+    }
+
+    public IntLongHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        keys = new int[capacity];
+        values = new long[capacity];
+        Arrays.fill(values, NO_VALUE);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long get(int key) {
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; values[i] != NO_VALUE; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+        }
+        return NO_VALUE;
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != NO_VALUE;
+    }
+
+    public void put(int key, long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Значение не может быть отрицательным.");
+        }
+
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        for (; values[i] != NO_VALUE; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > keys.length * LOAD_FACTOR) {
+            resize(keys.length * 2);
+        }
+    }
+
+    public long remove(int key) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        for (; values[i] != NO_VALUE; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                long value = values[i];
+                shiftBack(i);
+                size--;
+                return value;
+            }
+        }
+        return NO_VALUE;
+    }
+
+    public void clear() {
+        Arrays.fill(values, NO_VALUE);
+        size = 0;
+    }
+
+    // Ключи в порядке возрастания
+    public int[] sortedKeys() {
+        int[] result = new int[size];
+        int count = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != NO_VALUE) {
+                result[count++] = keys[i];
+            }
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    // Удаление без надгробий: следующие элементы цепочки сдвигаются на освободившееся место
+    private void shiftBack(int free) {
+        int mask = keys.length - 1;
+        int i = (free + 1) & mask;
+        for (; values[i] != NO_VALUE; i = (i + 1) & mask) {
+            int home = hash(keys[i]) & mask;
+            // Элемент можно перенести, если его исходная позиция не лежит между free и i
+            if (((i - home) & mask) >= ((i - free) & mask)) {
+                keys[free] = keys[i];
+                values[free] = values[i];
+                free = i;
+            }
+        }
+        values[free] = NO_VALUE;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new int[capacity];
+        values = new long[capacity];
+        Arrays.fill(values, NO_VALUE);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != NO_VALUE) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
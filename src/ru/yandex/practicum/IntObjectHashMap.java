@@ -0,0 +1,245 @@
+package ru.yandex.practicum;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+// Отображение int -> объект без упаковки ключей. Записи лежат в массивах ключей и значений в порядке вставки,
+// а таблица с открытой адресацией хранит только номер записи, поэтому обход идёт как у LinkedHashMap.
+// Удалённая запись остаётся пустым местом в массивах, пустые места убираются при следующем росте
+public class IntObjectHashMap<V> {
+    private static final float LOAD_FACTOR = 0.6f;
+    private static final int EMPTY = 0;
+
+    // Номер записи + 1, EMPTY - свободная ячейка
+    private int[] slots;
+    private int[] keys;
+    private Object[] values;
+    private int entryCount;
+    private int size;
+    private int modCount;
+    private final Collection<V> valuesView = new ValuesView();
+
+    public IntObjectHashMap() {
+        this(16);
+    }
+
+    public IntObjectHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        slots = new int[capacity];
+        keys = new int[Math.max(8, expectedSize)];
+        values = new Object[keys.length];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int entry = findEntry(key);
+        return entry < 0 ? null : (V) values[entry];
+    }
+
+    public boolean containsKey(int key) {
+        return findEntry(key) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        Objects.requireNonNull(value);
+        int entry = findEntry(key);
+        if (entry >= 0) {
+            V old = (V) values[entry];
+            values[entry] = value;
+            return old;
+        }
+
+        if (entryCount == keys.length) {
+            growEntries();
+        }
+        keys[entryCount] = key;
+        values[entryCount] = value;
+        entryCount++;
+        size++;
+        modCount++;
+
+        if (size > slots.length * LOAD_FACTOR) {
+            rebuildSlots(slots.length * 2);
+        } else {
+            insertSlot(key, entryCount);
+        }
+        return null;
+    }
+
+    public V computeIfAbsent(int key, IntFunction<? extends V> mapping) {
+        V value = get(key);
+        if (value == null) {
+            value = mapping.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int mask = slots.length - 1;
+        for (int i = hash(key) & mask; slots[i] != EMPTY; i = (i + 1) & mask) {
+            int entry = slots[i] - 1;
+            if (keys[entry] == key) {
+                V value = (V) values[entry];
+                values[entry] = null;
+                shiftBack(i);
+                size--;
+                modCount++;
+                return value;
+            }
+        }
+        return null;
+    }
+
+    public void clear() {
+        Arrays.fill(slots, EMPTY);
+        Arrays.fill(values, 0, entryCount, null);
+        entryCount = 0;
+        size = 0;
+        modCount++;
+    }
+
+    // Обход ключей в порядке вставки
+    public void forEachKey(IntConsumer action) {
+        int expectedModCount = modCount;
+        for (int i = 0; i < entryCount; i++) {
+            if (values[i] != null) {
+                action.accept(keys[i]);
+            }
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    // Значения в порядке вставки, представление только для чтения
+    public Collection<V> values() {
+        return valuesView;
+    }
+
+    private int findEntry(int key) {
+        int mask = slots.length - 1;
+        for (int i = hash(key) & mask; slots[i] != EMPTY; i = (i + 1) & mask) {
+            int entry = slots[i] - 1;
+            if (keys[entry] == key) {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    private void insertSlot(int key, int slot) {
+        int mask = slots.length - 1;
+        int i = hash(key) & mask;
+        while (slots[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        slots[i] = slot;
+    }
+
+    // Если больше половины записей удалены, массивы уплотняются, иначе растут вдвое
+    private void growEntries() {
+        if (size <= entryCount / 2) {
+            int count = 0;
+            for (int i = 0; i < entryCount; i++) {
+                if (values[i] != null) {
+                    keys[count] = keys[i];
+                    values[count] = values[i];
+                    count++;
+                }
+            }
+            Arrays.fill(values, count, entryCount, null);
+            entryCount = count;
+            rebuildSlots(slots.length);
+        } else {
+            keys = Arrays.copyOf(keys, keys.length * 2);
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+    }
+
+    private void rebuildSlots(int capacity) {
+        slots = new int[capacity];
+        for (int i = 0; i < entryCount; i++) {
+            if (values[i] != null) {
+                insertSlot(keys[i], i + 1);
+            }
+        }
+    }
+
+    // Удаление без надгробий в таблице, как в IntLongHashMap
+    private void shiftBack(int free) {
+        int mask = slots.length - 1;
+        int i = (free + 1) & mask;
+        for (; slots[i] != EMPTY; i = (i + 1) & mask) {
+            int home = hash(keys[slots[i] - 1]) & mask;
+            if (((i - home) & mask) >= ((i - free) & mask)) {
+                slots[free] = slots[i];
+                free = i;
+            }
+        }
+        slots[free] = EMPTY;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private class ValuesView extends AbstractCollection<V> {
+        @Override
+        public Iterator<V> iterator() {
+            return new Iterator<>() {
+                private final int expectedModCount = modCount;
+                private int index = skipRemoved(0);
+
+                @Override
+                public boolean hasNext() {
+                    return index < entryCount;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public V next() {
+                    if (modCount != expectedModCount) {
+                        throw new ConcurrentModificationException();
+                    }
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    V value = (V) values[index];
+                    index = skipRemoved(index + 1);
+                    return value;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        private int skipRemoved(int index) {
+            while (index < entryCount && values[index] == null) {
+                index++;
+            }
+            return index;
+        }
+    }
+}
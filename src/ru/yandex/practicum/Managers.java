@@ -8,11 +8,47 @@ public class Managers {
         return new InMemoryTaskManager();
     }
 
+    // Менеджер, который записывает в историю и элементы списков задач
+    public static TaskManager getDefault(HistoryPolicy historyPolicy) {
+        return new InMemoryTaskManager(getDefaultHistory(), historyPolicy);
+    }
+
+    // Менеджер для общего доступа из нескольких потоков
+    public static TaskManager getConcurrent() {
+        return new ConcurrentTaskManager(new InMemoryTaskManager(new ConcurrentHistoryManager()));
+    }
+
+    // Менеджер с метриками операций поверх taskManager, для файлового менеджера - и с метриками файла
+    public static InstrumentedTaskManager getInstrumented(TaskManager taskManager) {
+        StorageMetrics storage = taskManager instanceof FileBackedTaskManager fileBacked
+                ? fileBacked.getStorageMetrics() : null;
+        return new InstrumentedTaskManager(taskManager, storage);
+    }
+
     public static HistoryManager getDefaultHistory() {
         return new InMemoryHistoryManager();
     }
 
+    // История ограниченного размера: давние просмотры вытесняются
+    public static HistoryManager getDefaultHistory(int capacity) {
+        return new InMemoryHistoryManager(capacity);
+    }
+
+    // Отдельная история для каждого пользователя, не больше capacity задач в каждой
+    public static SessionHistoryManager getSessionHistory(int capacity) {
+        return new SessionHistoryManager(capacity);
+    }
+
     public static TaskManager getFromFile(File file) {
         return FileBackedTaskManager.loadFromFile(file);
     }
+
+    public static TaskManager getFromFile(File file, StorageSettings settings) {
+        return FileBackedTaskManager.loadFromFile(file, settings);
+    }
+
+    // Архивная доска в файле записей, задачи читаются из файла по требованию
+    public static MappedTaskManager getMapped(File file) {
+        return MappedTaskManager.open(file);
+    }
 }
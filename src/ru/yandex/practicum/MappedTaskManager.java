@@ -0,0 +1,440 @@
+package ru.yandex.practicum;
+
+import java.io.File;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+// Менеджер для больших архивных досок: задачи лежат в файле записей MappedTaskStore,
+// а объекты Task создаются только при чтении (getTask, списки, обход).
+// В памяти остаются индекс ID -> смещение, интервалы задач в массивах примитивов, история просмотров
+// и сводные данные эпиков (состав, статус, время), которые меняются приращениями, как в InMemoryTaskManager.
+// Поэтому изменение подзадачи не перечитывает соседние подзадачи и не переписывает запись эпика
+public class MappedTaskManager implements TaskManager, AutoCloseable {
+    private final IdGenerator idGenerator = new IdGenerator();
+    private final HistoryManager historyManager = Managers.getDefaultHistory();
+    private final HistoryPolicy historyPolicy;
+    private final MappedTaskStore store;
+    private final TimeSlotArray timeSlots;
+    private final IntObjectHashMap<EpicAggregate> epicAggregates = new IntObjectHashMap<>();
+    private final Collection<Task> prioritizedView = new PrioritizedView();
+
+    private MappedTaskManager(MappedTaskStore store, HistoryPolicy historyPolicy) {
+        this.store = store;
+        this.historyPolicy = historyPolicy;
+
+        int[] ids = new int[store.size()];
+        long[] starts = new long[ids.length];
+        long[] ends = new long[ids.length];
+        int count = 0;
+        for (TaskType type : new TaskType[]{TaskType.TASK, TaskType.EPIC, TaskType.SUBTASK}) {
+            for (int id : store.ids(type)) {
+                idGenerator.observe(id);
+                if (type != TaskType.EPIC && store.startSecond(id) != Task.NO_START_KEY) {
+                    ids[count] = id;
+                    starts[count] = store.startSecond(id);
+                    ends[count] = store.endSecond(id);
+                    count++;
+                }
+            }
+        }
+        this.timeSlots = TimeSlotArray.of(ids, starts, ends, count);
+
+        // Состав и сводные данные эпиков собираются по записям подзадач без разбора строк
+        for (int epicId : store.ids(TaskType.EPIC)) {
+            epicAggregates.put(epicId, new EpicAggregate());
+        }
+        for (int subtaskId : store.ids(TaskType.SUBTASK)) {
+            Subtask subtask = (Subtask) store.readWithoutText(subtaskId);
+            EpicAggregate aggregate = epicAggregates.get(subtask.getEpicId());
+            if (aggregate != null) {
+                aggregate.put(subtask);
+            }
+        }
+    }
+
+    // Открытие или создание файла записей, задачи при этом не разбираются
+    public static MappedTaskManager open(File file) {
+        return open(file, HistoryPolicy.SINGLE_READS);
+    }
+
+    public static MappedTaskManager open(File file, HistoryPolicy historyPolicy) {
+        return new MappedTaskManager(MappedTaskStore.open(file), historyPolicy);
+    }
+
+    // Перезапись файла без устаревших версий задач и отметок об удалении
+    public void compact() {
+        store.compact();
+    }
+
+    @Override
+    public void close() {
+        store.close();
+    }
+
+    // Создание задач
+    @Override
+    public Task createTask(Task task) {
+        if (isCrossTasks(task)) {
+            throw new TaskOverlapException("Задача имеет пересечение по времени");
+        }
+
+        if (task.getId() == 0) {
+            task.setId(idGenerator.next());
+        }
+        if (store.contains(task.getId())) {
+            throw new IllegalArgumentException("Задача с таким ID уже существует.");
+        }
+
+        store.write(task);
+        addTimeSlot(task);
+        idGenerator.observe(task.getId());
+        return task;
+    }
+
+    @Override
+    public Epic createEpic(Epic epic) {
+        if (epic.getId() == 0) {
+            epic.setId(idGenerator.next());
+        }
+        if (store.contains(epic.getId())) {
+            throw new IllegalArgumentException("Задача с таким ID уже существует.");
+        }
+
+        store.write(epic);
+        epicAggregates.put(epic.getId(), new EpicAggregate());
+        idGenerator.observe(epic.getId());
+        return epic;
+    }
+
+    @Override
+    public Subtask createSubtask(Subtask subtask) {
+        if (isCrossTasks(subtask)) {
+            throw new TaskOverlapException("Подзадача имеет пересечение по времени");
+        }
+
+        EpicAggregate aggregate = epicAggregates.get(subtask.getEpicId());
+        if (aggregate == null) {
+            throw new IllegalArgumentException("Эпика не существует");
+        }
+
+        if (subtask.getId() == 0) {
+            subtask.setId(idGenerator.next());
+        }
+        if (store.contains(subtask.getId())) {
+            throw new IllegalArgumentException("Задача с таким ID уже существует.");
+        }
+
+        store.write(subtask);
+        addTimeSlot(subtask);
+        idGenerator.observe(subtask.getId());
+        aggregate.put(subtask);
+        return subtask;
+    }
+
+    // Обновление задач
+    @Override
+    public Task updateTask(Task task) {
+        if (store.typeOf(task.getId()) != TaskType.TASK) {
+            return null;
+        }
+        if (isCrossTasks(task)) {
+            throw new TaskOverlapException("Задача имеет пересечение по времени");
+        }
+
+        store.write(task);
+        addTimeSlot(task);
+        return task;
+    }
+
+    @Override
+    public Epic updateEpic(Epic epic) {
+        if (store.typeOf(epic.getId()) != TaskType.EPIC) {
+            return null;
+        }
+        Epic savedEpic = (Epic) store.read(epic.getId());
+        savedEpic.setName(epic.getName());
+        savedEpic.setDescription(epic.getDescription());
+        store.write(savedEpic);
+        return readEpic(epic.getId());
+    }
+
+    @Override
+    public Subtask updateSubtask(Subtask subtask) {
+        Subtask savedSubtask = readSubtask(subtask.getId());
+        if (savedSubtask == null) {
+            return null;
+        }
+        if (isCrossTasks(subtask)) {
+            throw new TaskOverlapException("Задача имеет пересечение по времени");
+        }
+
+        savedSubtask.setName(subtask.getName());
+        savedSubtask.setDescription(subtask.getDescription());
+        savedSubtask.setStatus(subtask.getStatus());
+        store.write(savedSubtask);
+
+        EpicAggregate aggregate = epicAggregates.get(savedSubtask.getEpicId());
+        if (aggregate != null) {
+            aggregate.put(savedSubtask);
+        }
+        return savedSubtask;
+    }
+
+    // Удаление всех задач
+    @Override
+    public void deleteAllTasks() {
+        deleteAll(store.ids(TaskType.TASK));
+    }
+
+    @Override
+    public void deleteAllEpics() {
+        deleteAll(store.ids(TaskType.SUBTASK));
+        deleteAll(store.ids(TaskType.EPIC));
+        epicAggregates.clear();
+    }
+
+    @Override
+    public void deleteAllSubtasks() {
+        deleteAll(store.ids(TaskType.SUBTASK));
+        for (EpicAggregate aggregate : epicAggregates.values()) {
+            aggregate.clear();
+        }
+    }
+
+    private void deleteAll(int[] ids) {
+        for (int id : ids) {
+            historyManager.remove(id);
+            timeSlots.remove(id);
+        }
+        store.deleteAll(ids);
+    }
+
+    // Получение задач по ID
+    @Override
+    public Task getTask(int id) {
+        return addToHistory(store.typeOf(id) == TaskType.TASK ? store.read(id) : null);
+    }
+
+    @Override
+    public Epic getEpic(int id) {
+        return addToHistory(readEpic(id));
+    }
+
+    @Override
+    public Subtask getSubtask(int id) {
+        return addToHistory(readSubtask(id));
+    }
+
+    // Удаление по ID
+    @Override
+    public void deleteTask(int id) {
+        if (store.typeOf(id) == TaskType.TASK) {
+            deleteAll(new int[]{id});
+        }
+        historyManager.remove(id);
+    }
+
+    @Override
+    public void deleteEpic(int id) {
+        EpicAggregate aggregate = epicAggregates.remove(id);
+        if (aggregate != null) {
+            IntArrayList ids = new IntArrayList(aggregate.size() + 1);
+            aggregate.forEachSubtaskId(ids::addInt);
+            ids.addInt(id);
+            deleteAll(ids.toIntArray());
+        }
+        historyManager.remove(id);
+    }
+
+    @Override
+    public void deleteSubtask(int id) {
+        if (store.typeOf(id) == TaskType.SUBTASK) {
+            Subtask subtask = (Subtask) store.readWithoutText(id);
+            deleteAll(new int[]{id});
+            EpicAggregate aggregate = epicAggregates.get(subtask.getEpicId());
+            if (aggregate != null) {
+                aggregate.remove(id);
+            }
+        }
+        historyManager.remove(id);
+    }
+
+    // Получение списков задач
+    @Override
+    public List<Task> getAllTasks() {
+        return readAll(TaskType.TASK);
+    }
+
+    @Override
+    public List<Epic> getAllEpics() {
+        return readAll(TaskType.EPIC);
+    }
+
+    @Override
+    public List<Subtask> getAllSubtasks() {
+        return readAll(TaskType.SUBTASK);
+    }
+
+    @Override
+    public int getTaskCount(TaskType type) {
+        return store.size(type);
+    }
+
+    @Override
+    public int getHistorySize() {
+        return historyManager.size();
+    }
+
+    @Override
+    public TaskType getTaskType(int id) {
+        return store.typeOf(id);
+    }
+
+    @Override
+    public void forEachTask(Consumer<? super Task> action) {
+        for (TaskType type : new TaskType[]{TaskType.TASK, TaskType.EPIC, TaskType.SUBTASK}) {
+            for (int id : store.ids(type)) {
+                action.accept(read(id));
+            }
+        }
+    }
+
+    // Задачи разбираются из файла по мере обхода представления
+    @Override
+    public Collection<Task> getPrioritizedTasks() {
+        return prioritizedView;
+    }
+
+    @Override
+    public List<Task> getOverlappingTasks(LocalDateTime from, LocalDateTime to) {
+        List<Task> result = new ArrayList<>();
+        for (int id : timeSlots.findOverlapping(TaskTimeIndex.toKey(from), TaskTimeIndex.toKey(to))) {
+            result.add(store.read(id));
+        }
+        return result;
+    }
+
+    // Получение подзадач эпика
+    @Override
+    public List<Subtask> getEpicSubtasks(int epicId) {
+        EpicAggregate aggregate = epicAggregates.get(epicId);
+        if (aggregate == null) {
+            return new ArrayList<>();
+        }
+
+        List<Subtask> result = new ArrayList<>(aggregate.size());
+        aggregate.forEachSubtaskId(subtaskId -> result.add((Subtask) store.read(subtaskId)));
+        return result;
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return historyManager.getHistory();
+    }
+
+    @Override
+    public List<Task> getLastViewed(int count) {
+        return historyManager.getLastViewed(count);
+    }
+
+    @Override
+    public List<Task> getHistoryAfter(int cursorId, int limit) {
+        return historyManager.getHistoryAfter(cursorId, limit);
+    }
+
+    @Override
+    public List<Task> getHistorySnapshot() {
+        return historyManager.getHistorySnapshot();
+    }
+
+    private boolean isCrossTasks(Task task) {
+        if (task.getStartTime() == null) {
+            return false;
+        }
+        return timeSlots.hasOverlap(task.getId(), task.getStartKey(), task.getEndKey());
+    }
+
+    private void addTimeSlot(Task task) {
+        if (task.getStartTime() == null) {
+            timeSlots.remove(task.getId());
+        } else {
+            timeSlots.add(task.getId(), task.getStartKey(), task.getEndKey());
+        }
+    }
+
+    private <T extends Task> T addToHistory(T task) {
+        if (task != null) {
+            historyManager.add(task);
+        }
+        return task;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Task> List<T> readAll(TaskType type) {
+        List<T> result = new ArrayList<>();
+        for (int id : store.ids(type)) {
+            T task = (T) read(id);
+            if (historyPolicy == HistoryPolicy.ALL_READS) {
+                historyManager.add(task);
+            }
+            result.add(task);
+        }
+        return result;
+    }
+
+    private Epic readEpic(int id) {
+        return store.typeOf(id) == TaskType.EPIC ? (Epic) read(id) : null;
+    }
+
+    // Задача из файла, у эпика подзадачи, статус и время берутся из сводных данных
+    private Task read(int id) {
+        Task task = store.read(id);
+        if (task instanceof Epic epic) {
+            EpicAggregate aggregate = epicAggregates.get(id);
+            aggregate.forEachSubtaskId(epic::addSubtaskId);
+            epic.setStatus(aggregate.getStatus());
+            epic.setDuration(Duration.ofMinutes(aggregate.getDurationMinutes()));
+            epic.setStartTime(aggregate.getStartTime());
+            epic.setEndTime(aggregate.getEndTime());
+        }
+        return task;
+    }
+
+    private Subtask readSubtask(int id) {
+        return store.typeOf(id) == TaskType.SUBTASK ? (Subtask) store.read(id) : null;
+    }
+
+    private class PrioritizedView extends AbstractCollection<Task> {
+        @Override
+        public Iterator<Task> iterator() {
+            return new Iterator<>() {
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < timeSlots.size();
+                }
+
+                @Override
+                public Task next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return store.read(timeSlots.idAt(index++));
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return timeSlots.size();
+        }
+    }
+}
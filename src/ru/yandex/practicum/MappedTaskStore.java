@@ -0,0 +1,454 @@
+package ru.yandex.practicum;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Файл записей задач, который читается и дописывается через отображение в память.
+// Записи только дописываются в конец: новая версия задачи или отметка об удалении заменяет прежнюю в индексе.
+// В памяти хранится только индекс ID -> (смещение записи, тип), задачи разбираются из файла при обращении.
+// Запись: длина, вид (тип задачи или удаление), ID, статус, длительность в минутах, начало в секундах и
+// наносекундах, ID эпика для подзадачи или список подзадач для эпика, название и описание в UTF-8.
+// Список подзадач эпика пишется пустым: состав эпика определяется по ID эпика в записях подзадач,
+// иначе каждое изменение подзадачи переписывало бы весь список. Списки в старых файлах пропускаются.
+// Отображение больше файла и растёт вдвое, поэтому файл отображается заново редко, а не после каждой записи.
+// Хвост из нулей за последней записью отрезается при закрытии, а после сбоя - при следующем открытии
+public class MappedTaskStore implements AutoCloseable {
+    static final int MAGIC = 0x4B4E4253; // "KNBS"
+    static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 8;
+    private static final int MIN_MAPPING = 64 * 1024;
+    private static final byte DELETED = -1;
+    private static final long NO_START = Long.MIN_VALUE;
+    private static final TaskType[] TASK_TYPES = TaskType.values();
+    private static final Status[] STATUSES = Status.values();
+
+    // Смещение от начала записи до поля начала задачи: длина, вид, ID, статус, длительность
+    private static final int START_OFFSET = 4 + 1 + 4 + 1 + 4;
+
+    private final File file;
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private long end;
+    private final IntLongHashMap index = new IntLongHashMap();
+    // ID по типам в порядке возрастания, меняются вместе с индексом, чтобы списки не сортировались при каждом запросе
+    private final IntArrayList[] sortedIds = new IntArrayList[TASK_TYPES.length];
+
+    private MappedTaskStore(File file) {
+        this.file = file;
+        for (int i = 0; i < sortedIds.length; i++) {
+            sortedIds[i] = new IntArrayList();
+        }
+    }
+
+    // Открытие файла с построением индекса одним проходом по записям, без разбора строк
+    public static MappedTaskStore open(File file) {
+        MappedTaskStore store = new MappedTaskStore(file);
+        try {
+            store.channel = FileChannel.open(file.toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (store.channel.size() == 0) {
+                store.writeHeader();
+            }
+            store.end = store.channel.size();
+            store.map(store.end);
+            store.buildIndex();
+            return store;
+        } catch (IOException e) {
+            store.close();
+            throw new ManagerLoadException("Произошла ошибка во время чтения файла.");
+        } catch (RuntimeException e) {
+            store.close();
+            throw e;
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public int size(TaskType type) {
+        return sortedIds[type.ordinal()].size();
+    }
+
+    public boolean contains(int id) {
+        return index.containsKey(id);
+    }
+
+    // Тип задачи с этим ID или null, если её нет
+    public TaskType typeOf(int id) {
+        long location = index.get(id);
+        return location == IntLongHashMap.NO_VALUE ? null : TASK_TYPES[(int) (location & 3)];
+    }
+
+    // ID задач одного типа в порядке возрастания
+    public int[] ids(TaskType type) {
+        return sortedIds[type.ordinal()].toIntArray();
+    }
+
+    public Task read(int id) {
+        long location = index.get(id);
+        if (location == IntLongHashMap.NO_VALUE) {
+            return null;
+        }
+        return decode(offsetOf(id), true);
+    }
+
+    // Задача без названия и описания: для сводных данных эпика строки не нужны
+    public Task readWithoutText(int id) {
+        return decode(offsetOf(id), false);
+    }
+
+    // Начало задачи в секундах эпохи без разбора записи целиком, Task.NO_START_KEY для задачи без времени
+    public long startSecond(int id) {
+        int offset = offsetOf(id);
+        long start = mapped.getLong(offset + START_OFFSET);
+        return start == NO_START ? Task.NO_START_KEY : start;
+    }
+
+    public long endSecond(int id) {
+        int offset = offsetOf(id);
+        return mapped.getLong(offset + START_OFFSET) + mapped.getInt(offset + START_OFFSET - 4) * 60L;
+    }
+
+    public void write(Task task) {
+        ByteBuffer record = encode(task);
+        long offset = append(record);
+        putIndex(task.getId(), offset << 2 | task.getType().ordinal());
+    }
+
+    public void delete(int id) {
+        deleteAll(new int[]{id});
+    }
+
+    // Отметки об удалении для пакета задач дописываются одной операцией записи
+    public void deleteAll(int[] ids) {
+        ByteBuffer records = ByteBuffer.allocate(ids.length * 9);
+        for (int id : ids) {
+            records.putInt(5).put(DELETED).putInt(id);
+        }
+        records.flip();
+        append(records);
+        // С конца: ID обычно идут по возрастанию, и тогда они снимаются с хвоста списков без сдвига
+        for (int i = ids.length - 1; i >= 0; i--) {
+            removeIndex(ids[i]);
+        }
+    }
+
+    // Перезапись файла только с актуальными версиями задач
+    public void compact() {
+        Path target = file.toPath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        int[] ids = index.sortedKeys();
+        long[] locations = new long[ids.length];
+
+        try (FileChannel out = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip();
+            writeFully(out, header);
+            long position = HEADER_SIZE;
+            for (int i = 0; i < ids.length; i++) {
+                long location = index.get(ids[i]);
+                int offset = (int) (location >>> 2);
+                int length = 4 + mapped.getInt(offset);
+                writeFully(out, mapped.slice(offset, length));
+                locations[i] = position << 2 | (location & 3);
+                position += length;
+            }
+            out.force(true);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Произошла ошибка во время сохранения файла.");
+        }
+
+        try {
+            channel.close();
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            channel = FileChannel.open(target, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            end = channel.size();
+            map(end);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Произошла ошибка во время сохранения файла.");
+        }
+        for (int i = 0; i < ids.length; i++) {
+            index.put(ids[i], locations[i]);
+        }
+    }
+
+    @Override
+    public void close() {
+        mapped = null;
+        if (channel == null) {
+            return;
+        }
+        try {
+            if (channel.isOpen() && channel.size() > end) {
+                channel.truncate(end);
+            }
+            channel.close();
+        } catch (IOException e) {
+            throw new ManagerSaveException("Произошла ошибка во время закрытия файла.");
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        writeFully(channel, ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip());
+    }
+
+    private void buildIndex() {
+        if (end < HEADER_SIZE || mapped.getInt(0) != MAGIC) {
+            throw new ManagerLoadException("Файл имеет неверный формат.");
+        }
+        int version = mapped.getInt(4);
+        if (version != VERSION) {
+            throw new ManagerLoadException("Неподдерживаемая версия файла: " + version);
+        }
+
+        int offset = HEADER_SIZE;
+        while (offset < end) {
+            if (end - offset < 9 || mapped.getInt(offset) < 5 || end - offset - 4 < mapped.getInt(offset)) {
+                // Последняя запись могла оборваться при аварийном завершении
+                truncate(offset);
+                return;
+            }
+            byte kind = mapped.get(offset + 4);
+            int id = mapped.getInt(offset + 5);
+            if (kind == DELETED) {
+                removeIndex(id);
+            } else {
+                putIndex(id, (long) offset << 2 | kind);
+            }
+            offset += 4 + mapped.getInt(offset);
+        }
+    }
+
+    private void putIndex(int id, long location) {
+        long previous = index.get(id);
+        int type = (int) (location & 3);
+        if (previous == IntLongHashMap.NO_VALUE || (previous & 3) != type) {
+            if (previous != IntLongHashMap.NO_VALUE) {
+                removeSorted(sortedIds[(int) (previous & 3)], id);
+            }
+            insertSorted(sortedIds[type], id);
+        }
+        index.put(id, location);
+    }
+
+    private void removeIndex(int id) {
+        long previous = index.remove(id);
+        if (previous != IntLongHashMap.NO_VALUE) {
+            removeSorted(sortedIds[(int) (previous & 3)], id);
+        }
+    }
+
+    // Новые ID обычно больше всех прежних, поэтому вставка чаще всего сводится к добавлению в конец
+    private static void insertSorted(IntArrayList ids, int id) {
+        int size = ids.size();
+        if (size == 0 || ids.getInt(size - 1) < id) {
+            ids.addInt(id);
+        } else {
+            ids.addInt(-binarySearch(ids, id) - 1, id);
+        }
+    }
+
+    private static void removeSorted(IntArrayList ids, int id) {
+        int index = binarySearch(ids, id);
+        if (index >= 0) {
+            ids.remove(index);
+        }
+    }
+
+    // Индекс значения или -(точка вставки) - 1, как в Arrays.binarySearch
+    private static int binarySearch(IntArrayList ids, int id) {
+        int low = 0;
+        int high = ids.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int value = ids.getInt(middle);
+            if (value < id) {
+                low = middle + 1;
+            } else if (value > id) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private void truncate(long size) {
+        try {
+            channel.truncate(size);
+            end = size;
+            map(size);
+        } catch (IOException e) {
+            throw new ManagerLoadException("Произошла ошибка во время чтения файла.");
+        }
+    }
+
+    private long append(ByteBuffer records) {
+        long offset = end;
+        long required = end + records.remaining();
+        if (required > Integer.MAX_VALUE) {
+            throw new ManagerSaveException("Файл записей не может быть больше 2 ГБ.");
+        }
+        if (required > mapped.capacity()) {
+            long grown = Math.max(required, Math.max(MIN_MAPPING, mapped.capacity() * 2L));
+            try {
+                mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(grown, Integer.MAX_VALUE));
+            } catch (IOException e) {
+                throw new ManagerSaveException("Произошла ошибка во время сохранения файла.");
+            }
+        }
+        mapped.put((int) offset, records, records.position(), records.remaining());
+        end = required;
+        return offset;
+    }
+
+    private int offsetOf(int id) {
+        long location = index.get(id);
+        if (location == IntLongHashMap.NO_VALUE) {
+            throw new IllegalArgumentException("Задачи с таким ID не существует.");
+        }
+        return (int) (location >>> 2);
+    }
+
+    private void map(long size) {
+        if (size > Integer.MAX_VALUE) {
+            throw new ManagerLoadException("Файл записей не может быть больше 2 ГБ.");
+        }
+        try {
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new ManagerLoadException("Произошла ошибка во время чтения файла.");
+        }
+    }
+
+    private Task decode(int offset, boolean withText) {
+        int position = offset + 4;
+        TaskType type = TASK_TYPES[mapped.get(position)];
+        int id = mapped.getInt(position + 1);
+        Status status = STATUSES[mapped.get(position + 5)];
+        Duration duration = Duration.ofMinutes(mapped.getInt(position + 6));
+        long startSecond = mapped.getLong(position + 10);
+        int startNano = mapped.getInt(position + 18);
+        LocalDateTime startTime = startSecond == NO_START
+                ? null : LocalDateTime.ofEpochSecond(startSecond, startNano, ZoneOffset.UTC);
+        position += 22;
+
+        // Поля после ID эпика или списка подзадач, чтобы сначала прочитать строки
+        int stringsPosition = position;
+        if (type == TaskType.SUBTASK) {
+            stringsPosition += 4;
+        } else if (type == TaskType.EPIC) {
+            stringsPosition += 4 + 4 * mapped.getInt(position);
+        }
+        String name = null;
+        String description = null;
+        if (withText) {
+            int nameLength = mapped.getInt(stringsPosition);
+            name = string(stringsPosition + 4, nameLength);
+            int descriptionPosition = stringsPosition + 4 + Math.max(nameLength, 0);
+            description = string(descriptionPosition + 4, mapped.getInt(descriptionPosition));
+        }
+
+        Task task;
+        switch (type) {
+            case TASK:
+                task = new Task(name, description, duration, startTime);
+                break;
+
+            case EPIC:
+                // Подзадачи, статус и время эпика заполняет менеджер по своим сводным данным
+                Epic epic = new Epic(name, description);
+                epic.setDuration(duration);
+                epic.setStartTime(startTime);
+                task = epic;
+                break;
+
+            default:
+                task = new Subtask(name, description, duration, startTime, mapped.getInt(position));
+        }
+        task.setId(id);
+        task.setStatus(status);
+        return task;
+    }
+
+    private String string(int position, int length) {
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        mapped.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer encode(Task task) {
+        byte[] name = bytes(task.getName());
+        byte[] description = bytes(task.getDescription());
+        // ID эпика у подзадачи или пустой список подзадач у эпика
+        int extra = task instanceof Subtask || task instanceof Epic ? 4 : 0;
+
+        int length = 1 + 4 + 1 + 4 + 8 + 4 + extra + 4 + (name == null ? 0 : name.length)
+                + 4 + (description == null ? 0 : description.length);
+        ByteBuffer record = ByteBuffer.allocate(4 + length);
+        record.putInt(length);
+        record.put((byte) task.getType().ordinal());
+        record.putInt(task.getId());
+        record.put((byte) task.getStatus().ordinal());
+        record.putInt(Math.toIntExact(task.getDuration()));
+
+        LocalDateTime startTime = task.getStartTime();
+        record.putLong(startTime == null ? NO_START : startTime.toEpochSecond(ZoneOffset.UTC));
+        record.putInt(startTime == null ? 0 : startTime.getNano());
+
+        if (task instanceof Subtask subtask) {
+            record.putInt(subtask.getEpicId());
+        } else if (task instanceof Epic) {
+            record.putInt(0);
+        }
+
+        putBytes(record, name);
+        putBytes(record, description);
+        return record.flip();
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        buffer.putInt(bytes.length).put(bytes);
+    }
+
+    private static int writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer);
+        }
+        return written;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.yandex.practicum;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+
+// /metrics - текстовый отчёт, если сервер работает с InstrumentedTaskManager
+public class MetricsHandler extends BaseHttpHandler {
+
+    public MetricsHandler(TaskManager taskManager) {
+        super(taskManager);
+    }
+
+    @Override
+    protected void handleGet(HttpExchange exchange, String[] path) throws IOException {
+        if (path.length == 2 && taskManager instanceof InstrumentedTaskManager instrumented) {
+            sendText(exchange, 200, instrumented.dump());
+        } else {
+            sendNotFound(exchange);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package ru.yandex.practicum;
+
+// Атрибуты JMX одной операции менеджера, время в микросекундах
+public interface OperationMetricsMBean {
+    String getName();
+
+    long getCount();
+
+    long getErrors();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+
+    void reset();
+}
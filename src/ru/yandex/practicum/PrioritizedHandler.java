@@ -0,0 +1,22 @@
+package ru.yandex.practicum;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+
+// /prioritized
+public class PrioritizedHandler extends BaseHttpHandler {
+
+    public PrioritizedHandler(TaskManager taskManager) {
+        super(taskManager);
+    }
+
+    @Override
+    protected void handleGet(HttpExchange exchange, String[] path) throws IOException {
+        if (path.length == 2) {
+            sendTasks(exchange, taskManager.getPrioritizedTasks()::forEach);
+        } else {
+            sendNotFound(exchange);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package ru.yandex.practicum;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Истории просмотров по пользователям. Менеджер задач работает с ней как с обычной историей:
+// просмотры и чтение истории относятся к сессии, в которой выполняется вызов (см. inSession),
+// а удаление задачи убирает её из истории всех сессий. Каждая история ограничена capacity задачами.
+// Сессий не больше maxSessions: незакрытые сессии иначе копились бы без конца, а удаление задачи обходит
+// все сессии. Новая сессия сверх предела вытесняет ту, к которой дольше всего не обращались
+public class SessionHistoryManager implements HistoryManager {
+    // Сессия для вызовов вне inSession
+    static final String DEFAULT_SESSION = "";
+    static final int DEFAULT_MAX_SESSIONS = 10_000;
+
+    private final int capacity;
+    private final int maxSessions;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final ThreadLocal<String> currentSession = ThreadLocal.withInitial(() -> DEFAULT_SESSION);
+
+    public SessionHistoryManager(int capacity) {
+        this(capacity, DEFAULT_MAX_SESSIONS);
+    }
+
+    public SessionHistoryManager(int capacity, int maxSessions) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Размер истории должен быть положительным.");
+        }
+        if (maxSessions <= 0) {
+            throw new IllegalArgumentException("Число сессий должно быть положительным.");
+        }
+        this.capacity = capacity;
+        this.maxSessions = maxSessions;
+    }
+
+    // Выполнение действия от имени пользователя, например обработки его запроса
+    public <T> T inSession(String sessionId, Supplier<T> action) {
+        String previous = currentSession.get();
+        currentSession.set(sessionId);
+        try {
+            return action.get();
+        } finally {
+            currentSession.set(previous);
+        }
+    }
+
+    public List<Task> getHistory(String sessionId) {
+        HistoryManager history = history(sessionId);
+        return history == null ? List.of() : history.getHistory();
+    }
+
+    // Завершение сессии освобождает её историю
+    public void closeSession(String sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    @Override
+    public void add(Task task) {
+        String sessionId = currentSession.get();
+        HistoryManager history = history(sessionId);
+        if (history == null) {
+            history = openSession(sessionId);
+        }
+        history.add(task);
+    }
+
+    @Override
+    public void remove(int id) {
+        for (Session session : sessions.values()) {
+            session.history.remove(id);
+        }
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return getHistory(currentSession.get());
+    }
+
+    @Override
+    public List<Task> getLastViewed(int count) {
+        HistoryManager history = history(currentSession.get());
+        return history == null ? List.of() : history.getLastViewed(count);
+    }
+
+    @Override
+    public List<Task> getHistoryAfter(int cursorId, int limit) {
+        HistoryManager history = history(currentSession.get());
+        return history == null ? List.of() : history.getHistoryAfter(cursorId, limit);
+    }
+
+    @Override
+    public int size() {
+        HistoryManager history = history(currentSession.get());
+        return history == null ? 0 : history.size();
+    }
+
+    @Override
+    public List<Task> getHistorySnapshot() {
+        HistoryManager history = history(currentSession.get());
+        return history == null ? List.of() : history.getHistorySnapshot();
+    }
+
+    // История сессии с отметкой обращения или null, если сессии нет
+    private HistoryManager history(String sessionId) {
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            return null;
+        }
+        session.lastAccess = System.nanoTime();
+        return session.history;
+    }
+
+    private HistoryManager openSession(String sessionId) {
+        Session session = sessions.computeIfAbsent(sessionId,
+                id -> new Session(new ConcurrentHistoryManager(new InMemoryHistoryManager(capacity))));
+        session.lastAccess = System.nanoTime();
+        if (sessions.size() > maxSessions) {
+            evictIdle(sessionId);
+        }
+        return session.history;
+    }
+
+    // Поиск самой давней сессии проходит по всем, но выполняется только при открытии сессии сверх предела
+    private synchronized void evictIdle(String openedId) {
+        while (sessions.size() > maxSessions) {
+            String idlest = null;
+            long idlestAccess = 0;
+            for (Map.Entry<String, Session> entry : sessions.entrySet()) {
+                long access = entry.getValue().lastAccess;
+                if (!entry.getKey().equals(openedId) && (idlest == null || access - idlestAccess < 0)) {
+                    idlest = entry.getKey();
+                    idlestAccess = access;
+                }
+            }
+            if (idlest == null) {
+                return;
+            }
+            sessions.remove(idlest);
+        }
+    }
+
+    private static final class Session {
+        final HistoryManager history;
+        volatile long lastAccess;
+
+        Session(HistoryManager history) {
+            this.history = history;
+        }
+    }
+}
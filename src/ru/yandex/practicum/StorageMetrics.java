@@ -0,0 +1,68 @@
+package ru.yandex.practicum;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Метрики FileBackedTaskManager: время записи снимка, фоновой записи и загрузки, объём записанных данных
+public class StorageMetrics implements StorageMetricsMBean {
+    private final OperationMetrics save = new OperationMetrics("save");
+    private final OperationMetrics flush = new OperationMetrics("flush");
+    private final OperationMetrics load = new OperationMetrics("loadFromFile");
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder snapshotCount = new LongAdder();
+    private final LongAdder journalRecords = new LongAdder();
+    private final AtomicLong lastSnapshotBytes = new AtomicLong();
+
+    public OperationMetrics getSave() {
+        return save;
+    }
+
+    public OperationMetrics getFlush() {
+        return flush;
+    }
+
+    public OperationMetrics getLoad() {
+        return load;
+    }
+
+    public List<OperationMetrics> operations() {
+        return List.of(save, flush, load);
+    }
+
+    void snapshotWritten(int bytes) {
+        bytesWritten.add(bytes);
+        snapshotCount.increment();
+        lastSnapshotBytes.set(bytes);
+    }
+
+    void journalWritten(int records, long bytes) {
+        bytesWritten.add(bytes);
+        journalRecords.add(records);
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    @Override
+    public long getLastSnapshotBytes() {
+        return lastSnapshotBytes.get();
+    }
+
+    @Override
+    public long getSnapshotCount() {
+        return snapshotCount.sum();
+    }
+
+    @Override
+    public long getJournalRecords() {
+        return journalRecords.sum();
+    }
+
+    String format() {
+        return String.format("storage bytesWritten=%d snapshots=%d lastSnapshotBytes=%d journalRecords=%d",
+                getBytesWritten(), getSnapshotCount(), getLastSnapshotBytes(), getJournalRecords());
+    }
+}
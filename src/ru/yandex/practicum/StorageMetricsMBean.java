@@ -0,0 +1,12 @@
+package ru.yandex.practicum;
+
+// Атрибуты JMX файлового хранилища
+public interface StorageMetricsMBean {
+    long getBytesWritten();
+
+    long getLastSnapshotBytes();
+
+    long getSnapshotCount();
+
+    long getJournalRecords();
+}
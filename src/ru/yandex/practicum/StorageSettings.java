@@ -0,0 +1,46 @@
+package ru.yandex.practicum;
+
+// Настройки сохранения FileBackedTaskManager
+public record StorageSettings(boolean journal, int compactionThreshold, long flushIntervalMillis, int flushBatchSize,
+                              FsyncPolicy fsyncPolicy, long fsyncIntervalMillis) {
+
+    public StorageSettings {
+        if (journal && compactionThreshold <= 0) {
+            throw new IllegalArgumentException("Порог сжатия журнала должен быть положительным.");
+        }
+        if (flushIntervalMillis < 0 || flushBatchSize < 0) {
+            throw new IllegalArgumentException("Параметры фоновой записи не могут быть отрицательными.");
+        }
+        if (fsyncPolicy == FsyncPolicy.PERIODIC && fsyncIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Для периодического сброса на диск нужен положительный интервал.");
+        }
+    }
+
+    // Полная перезапись файла при каждом изменении
+    public static StorageSettings snapshot() {
+        return new StorageSettings(false, 0, 0, 0, FsyncPolicy.NEVER, 0);
+    }
+
+    // Изменения дописываются в журнал, снимок пересобирается раз в compactionThreshold записей
+    public static StorageSettings journal(int compactionThreshold) {
+        return new StorageSettings(true, compactionThreshold, 0, 0, FsyncPolicy.NEVER, 0);
+    }
+
+    // Изменения копятся в памяти и записываются фоновым потоком раз в intervalMillis
+    // или после batchSize изменений, несколько изменений дают одну запись
+    public StorageSettings withAsyncFlush(long intervalMillis, int batchSize) {
+        if (intervalMillis <= 0 && batchSize <= 0) {
+            throw new IllegalArgumentException("Нужно задать интервал или размер пакета для фоновой записи.");
+        }
+        return new StorageSettings(journal, compactionThreshold, intervalMillis, batchSize, fsyncPolicy, fsyncIntervalMillis);
+    }
+
+    // Сброс на диск: при каждой записи, не чаще раза в intervalMillis или только средствами ОС
+    public StorageSettings withFsync(FsyncPolicy policy, long intervalMillis) {
+        return new StorageSettings(journal, compactionThreshold, flushIntervalMillis, flushBatchSize, policy, intervalMillis);
+    }
+
+    public boolean async() {
+        return flushIntervalMillis > 0 || flushBatchSize > 0;
+    }
+}
@@ -17,6 +17,13 @@ public class Subtask extends Task {
         return epicId;
     }
 
+    @Override
+    Subtask copy() {
+        Subtask copy = new Subtask(getName(), getDescription(), null, null, epicId);
+        copyFieldsTo(copy);
+        return copy;
+    }
+
     @Override
     public TaskType getType() {
         return SUBTASK;
@@ -0,0 +1,64 @@
+package ru.yandex.practicum;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+
+// /subtasks и /subtasks/{id}
+public class SubtasksHandler extends BaseHttpHandler {
+
+    public SubtasksHandler(TaskManager taskManager) {
+        super(taskManager);
+    }
+
+    @Override
+    protected void handleGet(HttpExchange exchange, String[] path) throws IOException {
+        if (path.length == 2) {
+            sendTasks(exchange, tasksOfType(taskManager, TaskType.SUBTASK));
+        } else if (path.length == 3) {
+            Subtask subtask = taskManager.getSubtask(parseId(path[2]));
+            if (subtask == null) {
+                sendNotFound(exchange);
+            } else {
+                sendTask(exchange, 200, subtask);
+            }
+        } else {
+            sendNotFound(exchange);
+        }
+    }
+
+    // Подзадача без id создаётся, с id - обновляется
+    @Override
+    protected void handlePost(HttpExchange exchange, String[] path) throws IOException {
+        if (path.length != 2) {
+            sendNotFound(exchange);
+            return;
+        }
+
+        Subtask subtask = (Subtask) readTask(exchange, TaskType.SUBTASK);
+        if (subtask.getId() == 0) {
+            sendTask(exchange, 201, taskManager.createSubtask(subtask));
+            return;
+        }
+
+        Subtask updated = taskManager.updateSubtask(subtask);
+        if (updated == null) {
+            sendNotFound(exchange);
+        } else {
+            sendTask(exchange, 201, updated);
+        }
+    }
+
+    @Override
+    protected void handleDelete(HttpExchange exchange, String[] path) throws IOException {
+        if (path.length == 2) {
+            taskManager.deleteAllSubtasks();
+        } else if (path.length == 3) {
+            taskManager.deleteSubtask(parseId(path[2]));
+        } else {
+            sendNotFound(exchange);
+            return;
+        }
+        sendText(exchange, 200, "");
+    }
+}
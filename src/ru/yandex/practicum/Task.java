@@ -8,26 +8,33 @@ import java.util.Objects;
 import static ru.yandex.practicum.TaskType.TASK;
 
 public class Task implements Comparable<Task> {
+    static final long NO_START_KEY = Long.MAX_VALUE;
+    private static final long NANOS_PER_MINUTE = 60_000_000_000L;
+
     private int id;
     private String name;
     private String description;
     private Status status;
-    private Duration duration;
     private LocalDateTime startTime;
+    // Время хранится в примитивах: начало и окончание в секундах эпохи (UTC), длительность в наносекундах.
+    // Окончание вычисляется один раз при изменении начала или длительности, а LocalDateTime начала
+    // и окончания лишь готовые значения для геттеров. Задачи без времени идут в конце
+    private long startKey = NO_START_KEY;
+    private long durationNanos;
+    private LocalDateTime endTime;
+    private long endKey = NO_START_KEY;
 
     public Task(String name, String description, Duration duration, LocalDateTime startTime) {
         this.name = name;
         this.description = description;
         this.status = Status.NEW;
-        this.duration = duration;
-        this.startTime = startTime;
+        setTime(startTime, duration == null ? 0 : duration.toNanos());
     }
 
     public Task(String name, String description) {
         this.name = name;
         this.description = description;
         this.status = Status.NEW;
-        this.duration = Duration.ZERO;
     }
 
     public int getId() {
@@ -51,19 +58,23 @@ public class Task implements Comparable<Task> {
     }
 
     public long getDuration() {
-        return duration.toMinutes();
+        return durationNanos / NANOS_PER_MINUTE;
     }
 
     public LocalDateTime getStartTime() {
         return startTime;
     }
 
-    public LocalDateTime getEndTime() {
-        if (startTime == null || duration == null) {
-            return null;
-        }
+    long getStartKey() {
+        return startKey;
+    }
 
-        return startTime.plus(duration);
+    long getEndKey() {
+        return endKey;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
     }
 
     public void setId(int id) {
@@ -83,11 +94,32 @@ public class Task implements Comparable<Task> {
     }
 
     public void setDuration(Duration duration) {
-        this.duration = duration;
+        setTime(startTime, duration == null ? 0 : duration.toNanos());
     }
 
     public void setStartTime(LocalDateTime startTime) {
+        setTime(startTime, durationNanos);
+    }
+
+    // Копия со всеми полями: менеджер меняет свои объекты на месте, а копия от этого не зависит
+    Task copy() {
+        Task copy = new Task(name, description);
+        copyFieldsTo(copy);
+        return copy;
+    }
+
+    void copyFieldsTo(Task target) {
+        target.id = id;
+        target.status = status;
+        target.setTime(startTime, durationNanos);
+    }
+
+    private void setTime(LocalDateTime startTime, long durationNanos) {
         this.startTime = startTime;
+        this.durationNanos = durationNanos;
+        this.startKey = startTime == null ? NO_START_KEY : startTime.toEpochSecond(ZoneOffset.UTC);
+        this.endTime = startTime == null ? null : startTime.plusNanos(durationNanos);
+        this.endKey = endTime == null ? NO_START_KEY : endTime.toEpochSecond(ZoneOffset.UTC);
     }
 
     @Override
@@ -106,15 +138,15 @@ public class Task implements Comparable<Task> {
     @Override
     public String toString() {
         return "Task{id=" + id + ", name='" + name + "', description='" + description + "', status=" + status
-                + ", duration=" + duration.toMinutes() + ", startTime=" + startTime + ", endTime=" + getEndTime() + "}";
+                + ", duration=" + getDuration() + ", startTime=" + startTime + ", endTime=" + getEndTime() + "}";
     }
 
     public String toString(Task task) {
         String toString = task.getId() + "," +
                 task.getType() + "," +
-                task.getName() + "," +
+                escape(task.getName()) + "," +
                 task.getStatus() + "," +
-                task.getDescription() + "," +
+                escape(task.getDescription()) + "," +
                 task.getDuration() + "," +
                 task.getStartTime();
 
@@ -125,17 +157,28 @@ public class Task implements Comparable<Task> {
         return toString + ",";
     }
 
+    // Поле с запятой, кавычкой или переводом строки берётся в кавычки по RFC 4180, кавычки внутри удваиваются
+    static String escape(String value) {
+        if (value == null) {
+            return null;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+        }
+        return value;
+    }
+
     @Override
     public int compareTo(Task o) {
-        return this.getStartTime().compareTo(o.getStartTime());
+        // Полный порядок: задачи с одинаковым началом различаются по ID
+        int result = Long.compare(startKey, o.startKey);
+        return result != 0 ? result : Integer.compare(id, o.id);
     }
 
     public boolean crossTasks(Task o) {
-        long startTime1 = this.getStartTime().toEpochSecond(ZoneOffset.UTC);
-        long endTime1 = this.getEndTime().toEpochSecond(ZoneOffset.UTC);
-        long startTime2 = o.getStartTime().toEpochSecond(ZoneOffset.UTC);
-        long endTime2 = o.getEndTime().toEpochSecond(ZoneOffset.UTC);
-
-        return endTime1 > startTime2 && endTime2 > startTime1;
+        return getEndKey() > o.startKey && o.getEndKey() > startKey;
     }
 }
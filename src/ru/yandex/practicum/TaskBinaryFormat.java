@@ -0,0 +1,215 @@
+package ru.yandex.practicum;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Двоичный снимок доски: заголовок с версией и поколением журнала, таблица строк и записи задач.
+// Запись: ID в varint, блок фиксированной длины и для подзадачи ID эпика в varint.
+// Строки хранятся один раз и в записях заменяются номерами, время хранится в секундах эпохи
+public class TaskBinaryFormat {
+    static final String EXTENSION = ".kanban";
+    static final int MAGIC = 0x4B414E42; // "KANB"
+    static final int VERSION = 2;
+
+    // Тип, статус, название, описание, длительность в минутах, начало в секундах и наносекундах
+    static final int FIXED_RECORD_SIZE = 1 + 1 + 4 + 4 + 4 + 8 + 4;
+
+    private static final int NO_STRING = -1;
+    private static final long NO_START = Long.MIN_VALUE;
+    private static final TaskType[] TASK_TYPES = TaskType.values();
+    private static final Status[] STATUSES = Status.values();
+
+    private TaskBinaryFormat() {
+    }
+
+    // Формат файла определяется по расширению, всё остальное читается как csv
+    public static boolean isBinary(File file) {
+        return file.getName().endsWith(EXTENSION);
+    }
+
+    public static byte[] write(List<Task> tasks) {
+        return write(tasks, 0);
+    }
+
+    public static byte[] write(List<Task> tasks, long journalGeneration) {
+        Map<String, Integer> stringIds = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        ByteBuffer records = ByteBuffer.allocate(tasks.size() * (FIXED_RECORD_SIZE + 10));
+
+        for (Task task : tasks) {
+            putVarInt(records, task.getId());
+            records.put((byte) task.getType().ordinal());
+            records.put((byte) task.getStatus().ordinal());
+            records.putInt(stringId(task.getName(), stringIds, strings));
+            records.putInt(stringId(task.getDescription(), stringIds, strings));
+            records.putInt(Math.toIntExact(task.getDuration()));
+
+            LocalDateTime startTime = task.getStartTime();
+            records.putLong(startTime == null ? NO_START : startTime.toEpochSecond(ZoneOffset.UTC));
+            records.putInt(startTime == null ? 0 : startTime.getNano());
+
+            if (task instanceof Subtask subtask) {
+                putVarInt(records, subtask.getEpicId());
+            }
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream(records.position() + strings.size() * 16 + 16);
+        ByteBuffer header = ByteBuffer.allocate(24);
+        header.putInt(MAGIC).putInt(VERSION).putLong(journalGeneration).putInt(strings.size()).putInt(tasks.size());
+        output.write(header.array(), 0, header.position());
+
+        ByteBuffer length = ByteBuffer.allocate(5);
+        for (String value : strings) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            length.clear();
+            putVarInt(length, bytes.length);
+            output.write(length.array(), 0, length.position());
+            output.write(bytes, 0, bytes.length);
+        }
+        output.write(records.array(), 0, records.position());
+        return output.toByteArray();
+    }
+
+    // Чтение через отображение файла в память, без промежуточного копирования в буфер потока
+    public static List<Task> read(File file) {
+        return readSnapshot(file).tasks();
+    }
+
+    public static TaskSnapshot readSnapshot(File file) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return readSnapshot(buffer);
+        } catch (IOException e) {
+            throw new ManagerLoadException("Произошла ошибка во время чтения файла.");
+        }
+    }
+
+    static List<Task> read(ByteBuffer buffer) {
+        return readSnapshot(buffer).tasks();
+    }
+
+    // Версия 1 записана до появления поколения журнала в заголовке
+    static TaskSnapshot readSnapshot(ByteBuffer buffer) {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new ManagerLoadException("Файл имеет неверный формат.");
+            }
+            int version = buffer.getInt();
+            if (version != 1 && version != VERSION) {
+                throw new ManagerLoadException("Неподдерживаемая версия файла: " + version);
+            }
+            long journalGeneration = version == 1 ? 0 : buffer.getLong();
+
+            // Размеры из файла проверяются по оставшимся байтам до выделения памяти:
+            // у каждой строки есть хотя бы байт длины, у каждой задачи хотя бы ID и блок фиксированной длины
+            int stringCount = checkSize(buffer.getInt(), 1, buffer);
+            int taskCount = buffer.getInt();
+            String[] strings = new String[stringCount];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[checkSize(getVarInt(buffer), 1, buffer)];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            List<Task> tasks = new ArrayList<>(checkSize(taskCount, FIXED_RECORD_SIZE + 1, buffer));
+            for (int i = 0; i < taskCount; i++) {
+                tasks.add(readTask(buffer, strings));
+            }
+            return new TaskSnapshot(tasks, journalGeneration);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | DateTimeException e) {
+            throw new ManagerLoadException("Файл имеет неверный формат.");
+        }
+    }
+
+    private static Task readTask(ByteBuffer buffer, String[] strings) {
+        int id = getVarInt(buffer);
+        TaskType type = TASK_TYPES[buffer.get()];
+        Status status = STATUSES[buffer.get()];
+        String name = string(buffer.getInt(), strings);
+        String description = string(buffer.getInt(), strings);
+        Duration duration = Duration.ofMinutes(buffer.getInt());
+        long startSecond = buffer.getLong();
+        int startNano = buffer.getInt();
+        LocalDateTime startTime = startSecond == NO_START
+                ? null : LocalDateTime.ofEpochSecond(startSecond, startNano, ZoneOffset.UTC);
+
+        switch (type) {
+            case TASK:
+                Task task = new Task(name, description, duration, startTime);
+                task.setId(id);
+                task.setStatus(status);
+                return task;
+
+            case EPIC:
+                Epic epic = new Epic(name, description);
+                epic.setId(id);
+                epic.setStatus(status);
+                epic.setDuration(duration);
+                epic.setStartTime(startTime);
+                return epic;
+
+            default:
+                Subtask subtask = new Subtask(name, description, duration, startTime, getVarInt(buffer));
+                subtask.setId(id);
+                subtask.setStatus(status);
+                return subtask;
+        }
+    }
+
+    private static int checkSize(int count, int itemSize, ByteBuffer buffer) {
+        if (count < 0 || count > buffer.remaining() / itemSize) {
+            throw new ManagerLoadException("Файл имеет неверный формат.");
+        }
+        return count;
+    }
+
+    private static int stringId(String value, Map<String, Integer> stringIds, List<String> strings) {
+        if (value == null) {
+            return NO_STRING;
+        }
+        return stringIds.computeIfAbsent(value, key -> {
+            strings.add(key);
+            return strings.size() - 1;
+        });
+    }
+
+    private static String string(int id, String[] strings) {
+        return id == NO_STRING ? null : strings[id];
+    }
+
+    // Беззнаковый varint: по 7 бит на байт, старший бит означает продолжение
+    private static void putVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int getVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new ManagerLoadException("Файл имеет неверный формат.");
+    }
+}
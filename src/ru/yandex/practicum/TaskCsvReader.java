@@ -0,0 +1,394 @@
+package ru.yandex.practicum;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Потоковое чтение задач из csv: поля разбираются прямо из буфера символов,
+// без промежуточного списка строк, split и регулярных выражений.
+// Поля в кавычках читаются по RFC 4180, так что в названии и описании могут быть запятые, кавычки и переводы строк
+public class TaskCsvReader {
+    static final String HEADER = "id,type,name,status,description,duration,startTime,epic";
+    // Поле заголовка с поколением журнала, которое накладывается поверх снимка
+    static final String JOURNAL_GENERATION = ",journal=";
+
+    private static final int FIELD_COUNT = 8;
+    private static final TaskType[] TASK_TYPES = TaskType.values();
+    private static final Status[] STATUSES = Status.values();
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private int lineNumber;
+    // Число символов потока до начала буфера, начало последней записи и признак перевода строки в её конце
+    private long bufferOffset;
+    private long recordStart;
+    private boolean recordTerminated;
+
+    // Поля текущей строки: начало и длина в общем массиве символов строки
+    private char[] line = new char[256];
+    private int lineLength;
+    private final int[] fieldStarts = new int[FIELD_COUNT];
+    private final int[] fieldLengths = new int[FIELD_COUNT];
+    private int fieldCount;
+
+    public TaskCsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    // Разбор одной строки без заголовка, например записи журнала
+    public static Task parse(String value) {
+        TaskCsvReader csvReader = new TaskCsvReader(new StringReader(value));
+        Task task = csvReader.next();
+        if (task == null) {
+            throw new ManagerLoadException("Неверный формат строки: " + value);
+        }
+        return task;
+    }
+
+    // Заголовок снимка. Возвращает поколение журнала из заголовка или 0, если снимок записан без журнала
+    public long readHeader() {
+        if (!readRecord() || !startsWith(HEADER)) {
+            throw new ManagerLoadException("Файл имеет неверный формат.");
+        }
+        int start = HEADER.length() + JOURNAL_GENERATION.length();
+        if (lineLength <= start || !matches(JOURNAL_GENERATION, HEADER.length(), JOURNAL_GENERATION.length())) {
+            return 0;
+        }
+        long generation = 0;
+        for (int i = start; i < lineLength; i++) {
+            char c = line[i];
+            if (c < '0' || c > '9' || generation > (Long.MAX_VALUE - 9) / 10) {
+                throw new ManagerLoadException("Файл имеет неверный формат.");
+            }
+            generation = generation * 10 + (c - '0');
+        }
+        return generation;
+    }
+
+    // Следующая задача из потока или null, если строки закончились
+    public Task next() {
+        while (readRecord()) {
+            if (lineLength > 0 && !isBlankLine()) {
+                splitFields();
+                return toTask();
+            }
+        }
+        return null;
+    }
+
+    // Следующая запись целиком, как она записана в файле, или null, если записи закончились
+    public String nextRecord() {
+        while (readRecord()) {
+            if (lineLength > 0 && !isBlankLine()) {
+                return new String(line, 0, lineLength);
+            }
+        }
+        return null;
+    }
+
+    // Смещение в символах от начала потока до последней прочитанной записи
+    public long recordStart() {
+        return recordStart;
+    }
+
+    // Закончилась ли последняя запись переводом строки. Запись без него в конце журнала - оборванная
+    public boolean isRecordTerminated() {
+        return recordTerminated;
+    }
+
+    // Чтение записи до перевода строки вне кавычек: поле в кавычках может содержать переводы строк.
+    // Кавычка открывает поле только в его начале, в середине поля она обычный символ, как в старых файлах
+    private boolean readRecord() {
+        lineLength = 0;
+        recordStart = bufferOffset + position;
+        recordTerminated = false;
+        boolean read = false;
+        boolean quoted = false;
+        boolean fieldStart = true;
+        // Сразу после закрывающей кавычки: следующая кавычка означает экранированную "" внутри поля
+        boolean afterQuote = false;
+        while (true) {
+            if (position == limit && !fill()) {
+                if (read) {
+                    lineNumber++;
+                }
+                return read;
+            }
+            read = true;
+
+            int start = position;
+            while (position < limit) {
+                char c = buffer[position];
+                if (c == '"') {
+                    if (quoted) {
+                        quoted = false;
+                        afterQuote = true;
+                    } else if (fieldStart || afterQuote) {
+                        quoted = true;
+                        afterQuote = false;
+                    }
+                    fieldStart = false;
+                } else {
+                    afterQuote = false;
+                    if (quoted) {
+                        fieldStart = false;
+                    } else if (c == '\n') {
+                        break;
+                    } else {
+                        fieldStart = c == ',';
+                    }
+                }
+                position++;
+            }
+            append(start, position - start);
+            if (position < limit) {
+                position++;
+                if (lineLength > 0 && line[lineLength - 1] == '\r') {
+                    lineLength--;
+                }
+                lineNumber++;
+                recordTerminated = true;
+                return true;
+            }
+        }
+    }
+
+    private boolean fill() {
+        try {
+            int count = reader.read(buffer);
+            if (count <= 0) {
+                return false;
+            }
+            bufferOffset += limit;
+            position = 0;
+            limit = count;
+            return true;
+        } catch (IOException e) {
+            throw new ManagerLoadException("Произошла ошибка во время чтения файла.");
+        }
+    }
+
+    private void append(int start, int length) {
+        if (lineLength + length > line.length) {
+            char[] grown = new char[Math.max(line.length * 2, lineLength + length)];
+            System.arraycopy(line, 0, grown, 0, lineLength);
+            line = grown;
+        }
+        System.arraycopy(buffer, start, line, lineLength, length);
+        lineLength += length;
+    }
+
+    private boolean isBlankLine() {
+        for (int i = 0; i < lineLength; i++) {
+            if (!Character.isWhitespace(line[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean startsWith(String prefix) {
+        return lineLength >= prefix.length() && matches(prefix, 0, prefix.length());
+    }
+
+    private boolean matches(String value, int start, int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (line[start + i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Разбиение записи на поля по RFC 4180. Кавычки снимаются на месте:
+    // раскрытое поле не длиннее исходного, поэтому символы сдвигаются внутри того же массива
+    private void splitFields() {
+        fieldCount = 0;
+        int read = 0;
+        int write = 0;
+        while (true) {
+            if (fieldCount == FIELD_COUNT) {
+                throw formatException();
+            }
+            fieldStarts[fieldCount] = write;
+
+            if (read < lineLength && line[read] == '"') {
+                read++;
+                while (true) {
+                    if (read == lineLength) {
+                        throw formatException();
+                    }
+                    char c = line[read++];
+                    if (c == '"') {
+                        if (read < lineLength && line[read] == '"') {
+                            read++;
+                        } else {
+                            break;
+                        }
+                    }
+                    line[write++] = c;
+                }
+                if (read < lineLength && line[read] != ',') {
+                    throw formatException();
+                }
+            } else {
+                while (read < lineLength && line[read] != ',') {
+                    line[write++] = line[read++];
+                }
+            }
+
+            fieldLengths[fieldCount] = write - fieldStarts[fieldCount];
+            fieldCount++;
+            if (read == lineLength) {
+                lineLength = write;
+                return;
+            }
+            read++;
+            write++;
+        }
+    }
+
+    private Task toTask() {
+        if (fieldCount < FIELD_COUNT - 1) {
+            throw formatException();
+        }
+
+        int id = parseInt(0);
+        TaskType type = parseEnum(1, TASK_TYPES, "Неизвестный тип задачи: ");
+        String name = parseString(2);
+        Status status = parseEnum(3, STATUSES, "Неизвестный статус задачи: ");
+        String description = parseString(4);
+        Duration duration = parseMinutes(5);
+        LocalDateTime startTime = parseDateTime(6);
+
+        switch (type) {
+            case TASK:
+                Task task = new Task(name, description, duration, startTime);
+                task.setId(id);
+                task.setStatus(status);
+                return task;
+
+            case EPIC:
+                Epic epic = new Epic(name, description);
+                epic.setId(id);
+                epic.setStatus(status);
+                epic.setDuration(duration);
+                epic.setStartTime(startTime);
+                return epic;
+
+            default:
+                if (fieldCount < FIELD_COUNT || fieldLengths[7] == 0) {
+                    throw new IllegalArgumentException("У подзадачи отсутствует ID эпика.");
+                }
+                Subtask subtask = new Subtask(name, description, duration, startTime, parseInt(7));
+                subtask.setId(id);
+                subtask.setStatus(status);
+                return subtask;
+        }
+    }
+
+    private String parseString(int field) {
+        return new String(line, fieldStarts[field], fieldLengths[field]);
+    }
+
+    // ID задачи и эпика: значение вне int иначе молча превратилось бы в другой ID
+    private int parseInt(int field) {
+        long value = parseLong(field);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw formatException();
+        }
+        return (int) value;
+    }
+
+    private Duration parseMinutes(int field) {
+        long minutes = parseLong(field);
+        if (minutes > Long.MAX_VALUE / 60 || minutes < Long.MIN_VALUE / 60) {
+            throw formatException();
+        }
+        return Duration.ofMinutes(minutes);
+    }
+
+    // Число копится с минусом, как в Long.parseLong: так без переполнения помещается и Long.MIN_VALUE
+    private long parseLong(int field) {
+        int start = fieldStarts[field];
+        int end = start + fieldLengths[field];
+        boolean negative = start < end && line[start] == '-';
+        int i = negative ? start + 1 : start;
+        if (i == end) {
+            throw formatException();
+        }
+
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = line[i] - '0';
+            if (digit < 0 || digit > 9 || value < limit / 10) {
+                throw formatException();
+            }
+            value *= 10;
+            if (value < limit + digit) {
+                throw formatException();
+            }
+            value -= digit;
+        }
+        return negative ? value : -value;
+    }
+
+    // Перечисления сравниваются посимвольно с заранее взятыми значениями, без valueOf и новых строк
+    private <E extends Enum<E>> E parseEnum(int field, E[] values, String message) {
+        int start = fieldStarts[field];
+        int length = fieldLengths[field];
+        for (E value : values) {
+            if (matches(value.name(), start, length)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException(message + parseString(field));
+    }
+
+    // Быстрый разбор формата LocalDateTime.toString: yyyy-MM-ddTHH:mm[:ss], остальное через LocalDateTime.parse
+    private LocalDateTime parseDateTime(int field) {
+        int start = fieldStarts[field];
+        int length = fieldLengths[field];
+        if (matches("null", start, length)) {
+            return null;
+        }
+
+        if ((length == 16 || length == 19) && line[start + 4] == '-' && line[start + 7] == '-'
+                && line[start + 10] == 'T' && line[start + 13] == ':' && (length == 16 || line[start + 16] == ':')) {
+            int year = digits(start, 4);
+            int month = digits(start + 5, 2);
+            int day = digits(start + 8, 2);
+            int hour = digits(start + 11, 2);
+            int minute = digits(start + 14, 2);
+            int second = length == 19 ? digits(start + 17, 2) : 0;
+            if (year >= 0 && month >= 0 && day >= 0 && hour >= 0 && minute >= 0 && second >= 0) {
+                return LocalDateTime.of(year, month, day, hour, minute, second);
+            }
+        }
+        return LocalDateTime.parse(parseString(field));
+    }
+
+    private int digits(int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = line[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private ManagerLoadException formatException() {
+        return new ManagerLoadException("Неверный формат строки " + lineNumber + ".");
+    }
+}
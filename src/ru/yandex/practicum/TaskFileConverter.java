@@ -0,0 +1,37 @@
+package ru.yandex.practicum;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+// Перевод файла задач между csv и двоичным форматом, формат определяется по расширению:
+// java ru.yandex.practicum.TaskFileConverter board.csv board.kanban
+public class TaskFileConverter {
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.out.println("Использование: TaskFileConverter <исходный файл> <новый файл>");
+            return;
+        }
+        int count = convert(new File(args[0]), new File(args[1]));
+        System.out.println("Перенесено задач: " + count);
+    }
+
+    // Изменения после последнего сжатия есть только в журнале рядом с исходным файлом, поэтому доска загружается
+    // так же, как при запуске менеджера: снимок и поверх него журнал (оборванный хвост журнала при этом отрезается)
+    public static int convert(File source, File target) {
+        StorageSettings settings = new TaskJournal(source).getFile().exists()
+                ? StorageSettings.journal(Integer.MAX_VALUE)
+                : StorageSettings.snapshot();
+        FileBackedTaskManager manager = FileBackedTaskManager.loadFromFile(source, settings);
+        List<Task> tasks = manager.collectAllTasks();
+        manager.close();
+        try {
+            Files.write(target.toPath(), FileBackedTaskManager.renderTasks(tasks, TaskBinaryFormat.isBinary(target)));
+        } catch (IOException e) {
+            throw new ManagerSaveException("Произошла ошибка во время сохранения файла.");
+        }
+        return tasks.size();
+    }
+}
@@ -0,0 +1,187 @@
+package ru.yandex.practicum;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Журнал изменений рядом с файлом снимка: одна csv-запись на операцию, запись только в конец файла.
+// Первая строка журнала - его поколение. Снимок хранит поколение журнала, который накладывается поверх него,
+// поэтому журнал, оставшийся после сбоя между записью снимка и очисткой журнала, при загрузке пропускается
+public class TaskJournal {
+    static final String GENERATION = "GENERATION";
+    // Поколение журнала, записанного до появления поколений
+    static final long NO_GENERATION = -1;
+
+    static final String CREATE = "CREATE";
+    static final String UPDATE = "UPDATE";
+    static final String DELETE = "DELETE";
+    static final String CLEAR = "CLEAR";
+
+    private final File file;
+    private int size;
+    private long generation;
+    // Поколение из файла, прочитанное readRecords
+    private long fileGeneration = NO_GENERATION;
+
+    public TaskJournal(File snapshotFile) {
+        this.file = new File(snapshotFile.getPath() + ".journal");
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    // Количество записей после последнего сжатия
+    public int size() {
+        return size;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    // Поколение, которое будет записано в начало нового файла журнала
+    public void setGeneration(long generation) {
+        this.generation = generation;
+    }
+
+    // Поколение журнала в файле по данным последнего readRecords, NO_GENERATION для журнала без поколения
+    public long getFileGeneration() {
+        return fileGeneration;
+    }
+
+    public int append(String record, boolean force) {
+        return appendAll(List.of(record), force);
+    }
+
+    // Пакет записей дописывается одной операцией записи, force - сбросить данные на диск.
+    // Возвращает число записанных байт
+    public int appendAll(List<String> records, boolean force) {
+        StringBuilder builder = new StringBuilder();
+        if (!file.exists()) {
+            builder.append(GENERATION).append(',').append(generation).append('\n');
+        }
+        for (String record : records) {
+            builder.append(record).append('\n');
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(builder.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (force) {
+                channel.force(false);
+            }
+            size += records.size();
+            return buffer.limit();
+        } catch (IOException e) {
+            throw new ManagerSaveException("Произошла ошибка во время записи журнала.");
+        }
+    }
+
+    // Сброс на диск ранее дописанных записей
+    public void sync() {
+        if (!file.exists()) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Произошла ошибка во время записи журнала.");
+        }
+    }
+
+    // Записи журнала без строки поколения. Каждая запись дописывается с переводом строки, поэтому запись
+    // без него в конце файла оборвалась при сбое: она отбрасывается и отрезается от файла,
+    // иначе следующая запись приклеилась бы к её обрывку
+    public List<String> readRecords() {
+        fileGeneration = NO_GENERATION;
+        if (!file.exists()) {
+            return new ArrayList<>();
+        }
+
+        try {
+            String content = Files.readString(file.toPath(), StandardCharsets.UTF_8);
+            // Записи читаются по правилам csv: перевод строки внутри поля в кавычках не разбивает запись
+            TaskCsvReader csvReader = new TaskCsvReader(new StringReader(content));
+            List<String> records = new ArrayList<>();
+            String record;
+            while ((record = csvReader.nextRecord()) != null) {
+                if (!csvReader.isRecordTerminated()) {
+                    truncate(content.substring(0, (int) csvReader.recordStart()));
+                    break;
+                }
+                if (records.isEmpty() && fileGeneration == NO_GENERATION && record.startsWith(GENERATION + ",")) {
+                    fileGeneration = parseGeneration(record);
+                } else {
+                    records.add(record);
+                }
+            }
+            size = records.size();
+            return records;
+        } catch (IOException e) {
+            throw new ManagerLoadException("Произошла ошибка во время чтения журнала.");
+        }
+    }
+
+    // Файл укорачивается до целых записей. Без них не остаётся и строки поколения, поэтому файл удаляется
+    private void truncate(String complete) throws IOException {
+        if (complete.isEmpty()) {
+            Files.delete(file.toPath());
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.truncate(complete.getBytes(StandardCharsets.UTF_8).length);
+            channel.force(false);
+        }
+    }
+
+    public void reset() {
+        reset(generation);
+    }
+
+    // Очистка журнала после записи свежего снимка, следующие записи начнут журнал поколения generation
+    public void reset(long generation) {
+        try {
+            Files.deleteIfExists(file.toPath());
+            size = 0;
+            this.generation = generation;
+        } catch (IOException e) {
+            throw new ManagerSaveException("Произошла ошибка во время очистки журнала.");
+        }
+    }
+
+    private static long parseGeneration(String record) {
+        try {
+            return Long.parseLong(record.substring(GENERATION.length() + 1));
+        } catch (NumberFormatException e) {
+            throw new ManagerLoadException("Неверное поколение журнала: " + record);
+        }
+    }
+
+    static String created(Task task) {
+        return CREATE + "," + task.toString(task);
+    }
+
+    static String updated(Task task) {
+        return UPDATE + "," + task.toString(task);
+    }
+
+    static String deleted(TaskType type, int id) {
+        return DELETE + "," + type + "," + id;
+    }
+
+    static String cleared(TaskType type) {
+        return CLEAR + "," + type;
+    }
+}
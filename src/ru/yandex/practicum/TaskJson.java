@@ -0,0 +1,46 @@
+package ru.yandex.practicum;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+// Представление задач в JSON для HTTP API.
+// Время передаётся строкой ISO-8601, длительность - числом минут, пустые поля - null.
+// Удобные методы для небольших объёмов, большие списки пишутся и читаются потоково через TaskJsonWriter и TaskJsonReader
+public class TaskJson {
+
+    private TaskJson() {
+    }
+
+    public static String toJson(Task task) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (TaskJsonWriter writer = new TaskJsonWriter(output, 512)) {
+            writer.writeTask(task);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    public static String toJson(Collection<? extends Task> tasks) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (TaskJsonWriter writer = new TaskJsonWriter(output)) {
+            writer.writeArray(tasks);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    // Разбор задачи заданного типа. Для новой задачи id не указывается или равен 0
+    public static Task fromJson(String json, TaskType type) {
+        try (TaskJsonReader reader = new TaskJsonReader(new StringReader(json))) {
+            return reader.readTask(type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package ru.yandex.practicum;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.function.Consumer;
+
+// Потоковое чтение задач из JSON формата TaskJsonWriter. Задачи массива разбираются по одной прямо из потока,
+// весь документ в память не читается. Имена полей сравниваются в буфере без создания строк,
+// строки создаются только для названия и описания. Неизвестные поля пропускаются
+public class TaskJsonReader implements Closeable {
+    private final Reader input;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    // Смещение начала буфера в потоке, для сообщений об ошибках
+    private long offset;
+    private final StringBuilder text = new StringBuilder();
+
+    public TaskJsonReader(InputStream input) {
+        this(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+
+    public TaskJsonReader(Reader input) {
+        this.input = input;
+    }
+
+    // Одна задача-объект. Тип берётся из поля type, если type равен null, иначе поле type игнорируется
+    public Task readTask(TaskType type) throws IOException {
+        skipWhitespace();
+        Task task = readObject(type);
+        skipWhitespace();
+        if (peek() != -1) {
+            throw error("лишние символы после объекта");
+        }
+        return task;
+    }
+
+    // Массив задач: каждая задача передаётся в action сразу после разбора
+    public void readArray(TaskType type, Consumer<? super Task> action) throws IOException {
+        skipWhitespace();
+        expect('[');
+        skipWhitespace();
+        if (peek() == ']') {
+            position++;
+        } else {
+            while (true) {
+                skipWhitespace();
+                action.accept(readObject(type));
+                skipWhitespace();
+                if (peek() == ',') {
+                    position++;
+                } else {
+                    expect(']');
+                    break;
+                }
+            }
+        }
+        skipWhitespace();
+        if (peek() != -1) {
+            throw error("лишние символы после массива");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    private Task readObject(TaskType type) throws IOException {
+        int id = 0;
+        TaskType declaredType = null;
+        String name = null;
+        String description = null;
+        Status status = null;
+        long duration = 0;
+        LocalDateTime startTime = null;
+        int epicId = 0;
+
+        expect('{');
+        skipWhitespace();
+        if (peek() == '}') {
+            position++;
+        } else {
+            while (true) {
+                skipWhitespace();
+                readString();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                if (nameIs("id")) {
+                    id = readInt();
+                } else if (nameIs("type")) {
+                    String value = readNullableString();
+                    declaredType = value == null ? null : TaskType.valueOf(value);
+                } else if (nameIs("name")) {
+                    name = readNullableString();
+                } else if (nameIs("description")) {
+                    description = readNullableString();
+                } else if (nameIs("status")) {
+                    String value = readNullableString();
+                    status = value == null ? null : Status.valueOf(value);
+                } else if (nameIs("duration")) {
+                    duration = peek() == 'n' ? readNull(0L) : readLong();
+                } else if (nameIs("startTime")) {
+                    startTime = readDateTime();
+                } else if (nameIs("epicId")) {
+                    epicId = readInt();
+                } else {
+                    // endTime, subtaskIds и прочие вычисляемые поля при чтении не нужны
+                    skipValue();
+                }
+                skipWhitespace();
+                if (peek() == ',') {
+                    position++;
+                } else {
+                    expect('}');
+                    break;
+                }
+            }
+        }
+
+        TaskType taskType = type != null ? type : declaredType;
+        if (taskType == null) {
+            throw error("не указан тип задачи");
+        }
+        Task task = switch (taskType) {
+            case TASK -> new Task(name, description, Duration.ofMinutes(duration), startTime);
+            case EPIC -> new Epic(name, description);
+            case SUBTASK -> new Subtask(name, description, Duration.ofMinutes(duration), startTime, epicId);
+        };
+        task.setId(id);
+        if (status != null && taskType != TaskType.EPIC) {
+            task.setStatus(status);
+        }
+        return task;
+    }
+
+    // Имя только что прочитанного поля, без создания строки
+    private boolean nameIs(String name) {
+        return text.length() == name.length() && name.contentEquals(text);
+    }
+
+    private String readNullableString() throws IOException {
+        if (peek() == 'n') {
+            return readNull(null);
+        }
+        readString();
+        return text.toString();
+    }
+
+    // Строка читается в общий буфер text
+    private void readString() throws IOException {
+        expect('"');
+        text.setLength(0);
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw error("незакрытая строка");
+            }
+            if (c == '"') {
+                return;
+            }
+            if (c != '\\') {
+                text.append((char) c);
+                continue;
+            }
+
+            int escaped = read();
+            switch (escaped) {
+                case '"', '\\', '/' -> text.append((char) escaped);
+                case 'n' -> text.append('\n');
+                case 'r' -> text.append('\r');
+                case 't' -> text.append('\t');
+                case 'b' -> text.append('\b');
+                case 'f' -> text.append('\f');
+                case 'u' -> {
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(read(), 16);
+                        if (digit < 0) {
+                            throw error("неверная escape-последовательность");
+                        }
+                        code = code * 16 + digit;
+                    }
+                    text.append((char) code);
+                }
+                default -> throw error("неверная escape-последовательность");
+            }
+        }
+    }
+
+    private long readLong() throws IOException {
+        boolean negative = peek() == '-';
+        if (negative) {
+            position++;
+        }
+        int c = peek();
+        if (c < '0' || c > '9') {
+            throw error("ожидалось целое число");
+        }
+
+        long value = 0;
+        while (c >= '0' && c <= '9') {
+            position++;
+            if (value > (Long.MAX_VALUE - (c - '0')) / 10) {
+                throw error("слишком большое число");
+            }
+            value = value * 10 + (c - '0');
+            c = peek();
+        }
+        if (c == '.' || c == 'e' || c == 'E') {
+            throw error("ожидалось целое число");
+        }
+        return negative ? -value : value;
+    }
+
+    private int readInt() throws IOException {
+        long value = readLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw error("слишком большое число");
+        }
+        return (int) value;
+    }
+
+    // Дата и время ISO-8601 вида 2030-01-01T10:00[:00[.000000000]], разбираются прямо из буфера text
+    private LocalDateTime readDateTime() throws IOException {
+        if (peek() == 'n') {
+            return readNull(null);
+        }
+        readString();
+        int length = text.length();
+        if (length < 16 || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != 'T'
+                || text.charAt(13) != ':') {
+            return parseDateTime();
+        }
+
+        int second = 0;
+        int nano = 0;
+        if (length > 16) {
+            if (length < 19 || text.charAt(16) != ':') {
+                return parseDateTime();
+            }
+            second = digits(17, 19);
+            if (length > 19) {
+                if (text.charAt(19) != '.' || length > 29 || length == 20) {
+                    return parseDateTime();
+                }
+                nano = digits(20, length);
+                for (int i = length; i < 29; i++) {
+                    nano *= 10;
+                }
+            }
+        }
+
+        int year = digits(0, 4);
+        int month = digits(5, 7);
+        int day = digits(8, 10);
+        int hour = digits(11, 13);
+        int minute = digits(14, 16);
+        if ((year | month | day | hour | minute | second | nano) < 0) {
+            return parseDateTime();
+        }
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+        } catch (RuntimeException e) {
+            throw error("неверная дата " + text);
+        }
+    }
+
+    // Запасной путь для редких форм записи (годы за пределами 0000-9999)
+    private LocalDateTime parseDateTime() throws IOException {
+        try {
+            return LocalDateTime.parse(text);
+        } catch (DateTimeParseException e) {
+            throw error("неверная дата " + text);
+        }
+    }
+
+    // Число из цифр text[from, to) или -1, если встретилась не цифра
+    private int digits(int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private <T> T readNull(T value) throws IOException {
+        for (char expected : new char[]{'n', 'u', 'l', 'l'}) {
+            if (read() != expected) {
+                throw error("ожидалось значение");
+            }
+        }
+        return value;
+    }
+
+    private void skipValue() throws IOException {
+        int c = peek();
+        switch (c) {
+            case '"' -> readString();
+            case '{', '[' -> skipContainer();
+            case 'n' -> readNull(null);
+            case 't', 'f' -> {
+                String literal = c == 't' ? "true" : "false";
+                for (int i = 0; i < literal.length(); i++) {
+                    if (read() != literal.charAt(i)) {
+                        throw error("ожидалось значение");
+                    }
+                }
+            }
+            default -> {
+                if (c != '-' && (c < '0' || c > '9')) {
+                    throw error("ожидалось значение");
+                }
+                position++;
+                for (c = peek(); c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E'
+                        || (c >= '0' && c <= '9'); c = peek()) {
+                    position++;
+                }
+            }
+        }
+    }
+
+    // Пропуск объекта или массива с учётом вложенности и строк
+    private void skipContainer() throws IOException {
+        int depth = 0;
+        do {
+            int c = peek();
+            if (c == -1) {
+                throw error("неожиданный конец");
+            }
+            if (c == '"') {
+                readString();
+                continue;
+            }
+            position++;
+            if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            }
+        } while (depth > 0);
+    }
+
+    private void expect(char expected) throws IOException {
+        if (peek() != expected) {
+            throw error("ожидался символ '" + expected + "'");
+        }
+        position++;
+    }
+
+    private void skipWhitespace() throws IOException {
+        for (int c = peek(); c == ' ' || c == '\n' || c == '\r' || c == '\t'; c = peek()) {
+            position++;
+        }
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        if (c != -1) {
+            position++;
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            offset += limit;
+            limit = Math.max(0, input.read(buffer));
+            position = 0;
+            if (limit == 0) {
+                return -1;
+            }
+        }
+        return buffer[position];
+    }
+
+    private IllegalArgumentException error(String reason) {
+        return new IllegalArgumentException("Неверный JSON в позиции " + (offset + position) + ": " + reason + ".");
+    }
+}
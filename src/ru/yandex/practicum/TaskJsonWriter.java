@@ -0,0 +1,292 @@
+package ru.yandex.practicum;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+// Потоковая запись задач в JSON прямо в OutputStream: символы кодируются в UTF-8 и числа выводятся по цифрам
+// в собственный буфер, поэтому промежуточные строки не создаются и память не растёт с числом задач.
+// Формат совпадает с TaskJson
+public class TaskJsonWriter implements Closeable, Flushable {
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+    private final OutputStream output;
+    private final byte[] buffer;
+    private int position;
+    // Внутри массива перед каждой задачей, кроме первой, нужна запятая
+    private boolean inArray;
+    private boolean hasElements;
+
+    public TaskJsonWriter(OutputStream output) {
+        this(output, 8192);
+    }
+
+    public TaskJsonWriter(OutputStream output, int bufferSize) {
+        this.output = output;
+        this.buffer = new byte[Math.max(64, bufferSize)];
+    }
+
+    // Все задачи, эпики и подзадачи менеджера одним массивом, без копии списка и без записи в историю
+    public static void writeAll(TaskManager taskManager, OutputStream output) throws IOException {
+        TaskJsonWriter writer = new TaskJsonWriter(output);
+        writer.writeArray(taskManager::forEachTask);
+        writer.flush();
+    }
+
+    public void beginArray() throws IOException {
+        if (inArray) {
+            throw new IllegalStateException("Вложенные массивы задач не поддерживаются.");
+        }
+        writeByte('[');
+        inArray = true;
+        hasElements = false;
+    }
+
+    public void endArray() throws IOException {
+        if (!inArray) {
+            throw new IllegalStateException("Массив задач не начат.");
+        }
+        writeByte(']');
+        inArray = false;
+    }
+
+    // Массив из задач, которые источник передаёт по одной (например, forEachTask менеджера)
+    public void writeArray(TaskSource source) throws IOException {
+        beginArray();
+        try {
+            source.forEach(task -> {
+                try {
+                    writeTask(task);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        endArray();
+    }
+
+    public void writeArray(Iterable<? extends Task> tasks) throws IOException {
+        beginArray();
+        for (Task task : tasks) {
+            writeTask(task);
+        }
+        endArray();
+    }
+
+    public void writeTask(Task task) throws IOException {
+        if (inArray && hasElements) {
+            writeByte(',');
+        }
+        hasElements = true;
+
+        writeAscii("{\"id\":");
+        writeLong(task.getId());
+        writeAscii(",\"type\":\"");
+        writeAscii(task.getType().name());
+        writeAscii("\",\"name\":");
+        writeString(task.getName());
+        writeAscii(",\"description\":");
+        writeString(task.getDescription());
+        writeAscii(",\"status\":\"");
+        writeAscii(task.getStatus().name());
+        writeAscii("\",\"duration\":");
+        writeLong(task.getDuration());
+        writeAscii(",\"startTime\":");
+        writeDateTime(task.getStartTime());
+        writeAscii(",\"endTime\":");
+        writeDateTime(task.getEndTime());
+
+        if (task instanceof Subtask subtask) {
+            writeAscii(",\"epicId\":");
+            writeLong(subtask.getEpicId());
+        } else if (task instanceof Epic epic) {
+            writeAscii(",\"subtaskIds\":[");
+            IntArrayList subtaskIds = epic.subtaskIdList();
+            for (int i = 0; i < subtaskIds.size(); i++) {
+                if (i > 0) {
+                    writeByte(',');
+                }
+                writeLong(subtaskIds.getInt(i));
+            }
+            writeByte(']');
+        }
+        writeByte('}');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        output.write(buffer, 0, position);
+        position = 0;
+        output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            output.close();
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeAscii("null");
+            return;
+        }
+
+        writeByte('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                writeByte('\\');
+                writeByte(c);
+            } else if (c < 0x20) {
+                writeControl(c);
+            } else if (c < 0x80) {
+                writeByte(c);
+            } else if (c < 0x800) {
+                writeByte(0xC0 | (c >> 6));
+                writeByte(0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                writeByte(0xF0 | (codePoint >> 18));
+                writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+                writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+                writeByte(0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Непарный суррогат в UTF-8 не кодируется, он передаётся escape-последовательностью
+                writeUnicodeEscape(c);
+            } else {
+                writeByte(0xE0 | (c >> 12));
+                writeByte(0x80 | ((c >> 6) & 0x3F));
+                writeByte(0x80 | (c & 0x3F));
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeControl(char c) throws IOException {
+        switch (c) {
+            case '\n' -> writeAscii("\\n");
+            case '\r' -> writeAscii("\\r");
+            case '\t' -> writeAscii("\\t");
+            default -> writeUnicodeEscape(c);
+        }
+    }
+
+    private void writeUnicodeEscape(char c) throws IOException {
+        writeAscii("\\u");
+        writeByte(HEX[(c >> 12) & 0xF]);
+        writeByte(HEX[(c >> 8) & 0xF]);
+        writeByte(HEX[(c >> 4) & 0xF]);
+        writeByte(HEX[c & 0xF]);
+    }
+
+    // Как LocalDateTime.toString: секунды и доли секунды выводятся, только если они не нулевые
+    private void writeDateTime(LocalDateTime dateTime) throws IOException {
+        if (dateTime == null) {
+            writeAscii("null");
+            return;
+        }
+        if (dateTime.getYear() < 0 || dateTime.getYear() > 9999) {
+            writeString(dateTime.toString());
+            return;
+        }
+
+        writeByte('"');
+        writeDigits(dateTime.getYear(), 4);
+        writeByte('-');
+        writeDigits(dateTime.getMonthValue(), 2);
+        writeByte('-');
+        writeDigits(dateTime.getDayOfMonth(), 2);
+        writeByte('T');
+        writeDigits(dateTime.getHour(), 2);
+        writeByte(':');
+        writeDigits(dateTime.getMinute(), 2);
+
+        int second = dateTime.getSecond();
+        int nano = dateTime.getNano();
+        if (second > 0 || nano > 0) {
+            writeByte(':');
+            writeDigits(second, 2);
+            if (nano > 0) {
+                writeByte('.');
+                if (nano % 1_000_000 == 0) {
+                    writeDigits(nano / 1_000_000, 3);
+                } else if (nano % 1_000 == 0) {
+                    writeDigits(nano / 1_000, 6);
+                } else {
+                    writeDigits(nano, 9);
+                }
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeDigits(int value, int width) throws IOException {
+        ensureCapacity(width);
+        for (int i = position + width - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += width;
+    }
+
+    private void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            writeAscii("-9223372036854775808");
+            return;
+        }
+
+        ensureCapacity(20);
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += digits;
+    }
+
+    // Только для строк из ASCII: имён полей, констант перечислений и чисел
+    private void writeAscii(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            writeByte(value.charAt(i));
+        }
+    }
+
+    private void writeByte(int value) throws IOException {
+        if (position == buffer.length) {
+            output.write(buffer, 0, position);
+            position = 0;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (position + bytes > buffer.length) {
+            output.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    // Источник задач, передающий их по одной, как TaskManager.forEachTask
+    @FunctionalInterface
+    public interface TaskSource {
+        void forEach(Consumer<? super Task> action);
+    }
+}
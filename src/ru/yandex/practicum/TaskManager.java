@@ -1,7 +1,9 @@
 package ru.yandex.practicum;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.TreeSet;
+import java.util.function.Consumer;
 
 public interface TaskManager {
     // Создание задач
@@ -11,12 +13,13 @@ public interface TaskManager {
 
     Subtask createSubtask(Subtask subtask);
 
-    // Обновление задач
-    void updateTask(Task task);
+    // Обновление задач. Проверка и обновление идут одной операцией: возвращается сохранённая задача
+    // после обновления или null, если задачи с таким id и типом нет
+    Task updateTask(Task task);
 
-    void updateEpic(Epic epic);
+    Epic updateEpic(Epic epic);
 
-    void updateSubtask(Subtask subtask);
+    Subtask updateSubtask(Subtask subtask);
 
     // Удаление всех задач
     void deleteAllTasks();
@@ -32,6 +35,9 @@ public interface TaskManager {
 
     Subtask getSubtask(int id);
 
+    // Тип задачи с этим ID или null, если её нет. Проверка не записывается в историю просмотров
+    TaskType getTaskType(int id);
+
     // Удаление по ID
     void deleteTask(int id);
 
@@ -46,10 +52,31 @@ public interface TaskManager {
 
     List<Subtask> getAllSubtasks();
 
-    TreeSet<Task> getPrioritizedTasks();
+    // Обход всех задач, эпиков и подзадач без записи в историю просмотров
+    void forEachTask(Consumer<? super Task> action);
+
+    // Задачи и подзадачи в порядке начала, представление только для чтения
+    Collection<Task> getPrioritizedTasks();
+
+    // Задачи и подзадачи, пересекающиеся по времени с интервалом [from, to)
+    List<Task> getOverlappingTasks(LocalDateTime from, LocalDateTime to);
 
     // Получение подзадач эпика
     List<Subtask> getEpicSubtasks(int epicId);
 
     List<Task> getHistory();
+
+    // Последние count просмотров, начиная с самого свежего
+    List<Task> getLastViewed(int count);
+
+    // Страница истории после задачи cursorId, с начала для HistoryManager.NO_CURSOR
+    List<Task> getHistoryAfter(int cursorId, int limit);
+
+    // История только для чтения без копирования, если она не менялась
+    List<Task> getHistorySnapshot();
+
+    // Размеры без обхода задач и копирования истории
+    int getTaskCount(TaskType type);
+
+    int getHistorySize();
 }
@@ -0,0 +1,8 @@
+package ru.yandex.practicum;
+
+// Задача пересекается по времени с уже существующей
+public class TaskOverlapException extends IllegalArgumentException {
+    public TaskOverlapException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.yandex.practicum;
+
+import java.util.List;
+
+// Содержимое файла снимка: задачи и поколение журнала, которое накладывается поверх снимка (0 - без журнала)
+public record TaskSnapshot(List<Task> tasks, long journalGeneration) {
+}
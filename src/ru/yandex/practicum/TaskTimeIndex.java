@@ -0,0 +1,137 @@
+package ru.yandex.practicum;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+// Индекс временных интервалов задач и подзадач.
+// Менеджер не допускает пересечений, поэтому интервалы в индексе упорядочены и по началу, и по концу:
+// для проверки новой задачи достаточно посмотреть на ближайшие слева слоты, а не на все задачи.
+public class TaskTimeIndex {
+    private final NavigableMap<Slot, Task> slots = new TreeMap<>();
+    private final Map<Integer, Slot> slotsById = new HashMap<>();
+    private final Collection<Task> tasksView = Collections.unmodifiableCollection(slots.values());
+
+    public void add(Task task) {
+        remove(task.getId());
+        if (task.getStartTime() == null) {
+            return;
+        }
+
+        Slot slot = Slot.of(task);
+        slots.put(slot, task);
+        slotsById.put(slot.id, slot);
+    }
+
+    public void remove(int id) {
+        Slot slot = slotsById.remove(id);
+        if (slot != null) {
+            slots.remove(slot);
+        }
+    }
+
+    public void clear() {
+        slots.clear();
+        slotsById.clear();
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    // Живое представление задач в порядке начала, изменения индекса сразу видны в нём
+    public Collection<Task> tasksView() {
+        return tasksView;
+    }
+
+    // Проверка пересечения с уже добавленными задачами, сама задача (по ID) не учитывается
+    public boolean hasOverlap(Task task) {
+        if (task.getStartTime() == null) {
+            return false;
+        }
+
+        Slot probe = Slot.of(task);
+        boolean groupFound = false;
+        long groupStart = 0;
+
+        // Пересечься может только группа слотов с наибольшим началом левее конца задачи
+        for (Slot slot : slots.headMap(new Slot(probe.end, probe.end, Integer.MIN_VALUE), false).descendingKeySet()) {
+            if (slot.id == probe.id) {
+                continue;
+            }
+            if (groupFound && slot.start != groupStart) {
+                break;
+            }
+            groupFound = true;
+            groupStart = slot.start;
+            if (slot.crosses(probe.start, probe.end)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Задачи, пересекающиеся с интервалом [from, to), в порядке начала
+    public List<Task> findOverlapping(LocalDateTime from, LocalDateTime to) {
+        long fromKey = toKey(from);
+        long toKey = toKey(to);
+        List<Task> result = new ArrayList<>();
+
+        Slot floor = slots.floorKey(new Slot(fromKey, fromKey, Integer.MAX_VALUE));
+        if (floor != null) {
+            for (Map.Entry<Slot, Task> entry : slots.headMap(floor, true).descendingMap().entrySet()) {
+                Slot slot = entry.getKey();
+                if (slot.start != floor.start) {
+                    break;
+                }
+                if (slot.crosses(fromKey, toKey)) {
+                    result.add(entry.getValue());
+                }
+            }
+            Collections.reverse(result);
+        }
+
+        if (toKey > fromKey) {
+            result.addAll(slots.subMap(new Slot(fromKey, fromKey, Integer.MAX_VALUE), false,
+                    new Slot(toKey, toKey, Integer.MIN_VALUE), false).values());
+        }
+        return result;
+    }
+
+    static long toKey(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static final class Slot implements Comparable<Slot> {
+        final long start;
+        final long end;
+        final int id;
+
+        Slot(long start, long end, int id) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+        }
+
+        static Slot of(Task task) {
+            return new Slot(task.getStartKey(), task.getEndKey(), task.getId());
+        }
+
+        boolean crosses(long otherStart, long otherEnd) {
+            return end > otherStart && otherEnd > start;
+        }
+
+        @Override
+        public int compareTo(Slot o) {
+            int result = Long.compare(start, o.start);
+            return result != 0 ? result : Integer.compare(id, o.id);
+        }
+    }
+}
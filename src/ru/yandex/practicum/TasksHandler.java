@@ -0,0 +1,66 @@
+package ru.yandex.practicum;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+
+// /tasks и /tasks/{id}
+public class TasksHandler extends BaseHttpHandler {
+
+    public TasksHandler(TaskManager taskManager) {
+        super(taskManager);
+    }
+
+    @Override
+    protected void handleGet(HttpExchange exchange, String[] path) throws IOException {
+        if (path.length == 2) {
+            sendTasks(exchange, tasksOfType(taskManager, TaskType.TASK));
+        } else if (path.length == 3) {
+            Task task = taskManager.getTask(parseId(path[2]));
+            if (task == null) {
+                sendNotFound(exchange);
+            } else {
+                sendTask(exchange, 200, task);
+            }
+        } else {
+            sendNotFound(exchange);
+        }
+    }
+
+    // Задача без id создаётся, с id - обновляется
+    @Override
+    protected void handlePost(HttpExchange exchange, String[] path) throws IOException {
+        if (path.length != 2) {
+            sendNotFound(exchange);
+            return;
+        }
+
+        Task task = readTask(exchange, TaskType.TASK);
+        if (task.getId() == 0) {
+            sendTask(exchange, 201, taskManager.createTask(task));
+            return;
+        }
+
+        // Проверка и обновление - одна операция менеджера, иначе удаление между ними дало бы ответ 201
+        // на обновление, которое ничего не изменило. В ответе сохранённое состояние, а не тело запроса
+        Task updated = taskManager.updateTask(task);
+        if (updated == null) {
+            sendNotFound(exchange);
+        } else {
+            sendTask(exchange, 201, updated);
+        }
+    }
+
+    @Override
+    protected void handleDelete(HttpExchange exchange, String[] path) throws IOException {
+        if (path.length == 2) {
+            taskManager.deleteAllTasks();
+        } else if (path.length == 3) {
+            taskManager.deleteTask(parseId(path[2]));
+        } else {
+            sendNotFound(exchange);
+            return;
+        }
+        sendText(exchange, 200, "");
+    }
+}
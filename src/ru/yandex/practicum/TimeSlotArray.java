@@ -0,0 +1,181 @@
+package ru.yandex.practicum;
+
+import java.util.Arrays;
+
+// Интервалы задач в отсортированных по (началу, ID) массивах примитивов.
+// Те же правила пересечений, что и в TaskTimeIndex, но без объекта на каждую задачу:
+// для больших архивных досок, где изменения редки, а хранить миллионы слотов в дереве дорого
+public class TimeSlotArray {
+    private static final long START_SHIFT = 1L << 62;
+
+    private long[] starts;
+    private long[] ends;
+    private int[] ids;
+    private int size;
+    private final IntLongHashMap startsById;
+
+    public TimeSlotArray() {
+        this(16);
+    }
+
+    public TimeSlotArray(int capacity) {
+        starts = new long[Math.max(capacity, 16)];
+        ends = new long[starts.length];
+        ids = new int[starts.length];
+        startsById = new IntLongHashMap(capacity);
+    }
+
+    // Массовая загрузка: слоты сортируются один раз, а не вставляются по одному
+    public static TimeSlotArray of(int[] ids, long[] starts, long[] ends, int count) {
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        sort(order, ids, starts);
+
+        TimeSlotArray slots = new TimeSlotArray(count);
+        for (int i = 0; i < count; i++) {
+            int j = order[i];
+            slots.starts[i] = starts[j];
+            slots.ends[i] = ends[j];
+            slots.ids[i] = ids[j];
+            slots.startsById.put(ids[j], offset(starts[j]));
+        }
+        slots.size = count;
+        return slots;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int idAt(int index) {
+        return ids[index];
+    }
+
+    public void add(int id, long start, long end) {
+        remove(id);
+        if (size == starts.length) {
+            int capacity = starts.length * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+        }
+
+        int index = lowerBound(start, id);
+        System.arraycopy(starts, index, starts, index + 1, size - index);
+        System.arraycopy(ends, index, ends, index + 1, size - index);
+        System.arraycopy(ids, index, ids, index + 1, size - index);
+        starts[index] = start;
+        ends[index] = end;
+        ids[index] = id;
+        size++;
+        startsById.put(id, offset(start));
+    }
+
+    public void remove(int id) {
+        long key = startsById.remove(id);
+        if (key == IntLongHashMap.NO_VALUE) {
+            return;
+        }
+
+        int index = lowerBound(key - START_SHIFT, id);
+        System.arraycopy(starts, index + 1, starts, index, size - index - 1);
+        System.arraycopy(ends, index + 1, ends, index, size - index - 1);
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        size--;
+    }
+
+    public void clear() {
+        size = 0;
+        startsById.clear();
+    }
+
+    // Проверка пересечения с уже добавленными интервалами, сам интервал (по ID) не учитывается
+    public boolean hasOverlap(int id, long start, long end) {
+        boolean groupFound = false;
+        long groupStart = 0;
+
+        // Пересечься может только группа слотов с наибольшим началом левее конца задачи
+        for (int i = lowerBound(end, Integer.MIN_VALUE) - 1; i >= 0; i--) {
+            if (ids[i] == id) {
+                continue;
+            }
+            if (groupFound && starts[i] != groupStart) {
+                break;
+            }
+            groupFound = true;
+            groupStart = starts[i];
+            if (ends[i] > start && end > starts[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ID задач, пересекающихся с интервалом [from, to), в порядке начала
+    public int[] findOverlapping(long from, long to) {
+        int floor = lowerBound(from, Integer.MAX_VALUE) - 1;
+        int first = floor;
+        while (first > 0 && starts[first - 1] == starts[floor]) {
+            first--;
+        }
+
+        int last = to > from ? lowerBound(to, Integer.MIN_VALUE) : floor + 1;
+        int[] result = new int[Math.max(0, last - Math.max(first, 0))];
+        int count = 0;
+        for (int i = Math.max(first, 0); i < last; i++) {
+            if (i > floor || (ends[i] > from && to > starts[i])) {
+                result[count++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    // Позиция первого слота не меньше (start, id)
+    private int lowerBound(long start, int id) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] < start || (starts[middle] == start && ids[middle] < id)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // Начало хранится в IntLongHashMap со сдвигом, так как там допустимы только неотрицательные значения.
+    // Секунды эпохи для диапазона LocalDateTime по модулю намного меньше сдвига
+    private static long offset(long start) {
+        return start + START_SHIFT;
+    }
+
+    private static void sort(int[] order, int[] ids, long[] starts) {
+        int[] buffer = new int[order.length];
+        for (int width = 1; width < order.length; width *= 2) {
+            for (int low = 0; low < order.length - width; low += 2 * width) {
+                int middle = low + width;
+                int high = Math.min(low + 2 * width, order.length);
+                int i = low;
+                int j = middle;
+                int k = low;
+                while (i < middle && j < high) {
+                    int a = order[i];
+                    int b = order[j];
+                    boolean takeLeft = starts[a] < starts[b] || (starts[a] == starts[b] && ids[a] <= ids[b]);
+                    buffer[k++] = takeLeft ? order[i++] : order[j++];
+                }
+                while (i < middle) {
+                    buffer[k++] = order[i++];
+                }
+                while (j < high) {
+                    buffer[k++] = order[j++];
+                }
+                System.arraycopy(buffer, low, order, low, high - low);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package ru.yandex.practicum;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentHistoryManagerTest {
+
+    private static Task task(int id) {
+        Task task = new Task("Задача " + id, "Описание");
+        task.setId(id);
+        return task;
+    }
+
+    @Test
+    void shouldKeepOrderAndMoveRepeatedViewToEnd() {
+        HistoryManager historyManager = new ConcurrentHistoryManager();
+        historyManager.add(task(1));
+        historyManager.add(task(2));
+        historyManager.add(task(1));
+        historyManager.add(task(3));
+        historyManager.remove(2);
+
+        assertEquals(List.of(task(1), task(3)), historyManager.getHistory());
+        assertEquals(List.of(task(3)), historyManager.getLastViewed(1));
+        assertEquals(List.of(task(3)), historyManager.getHistoryAfter(1, 10));
+        assertSame(historyManager.getHistorySnapshot(), historyManager.getHistorySnapshot());
+    }
+
+    // Просмотры разных потоков лежат в разных буферах, но в историю попадают в том порядке, в котором завершились
+    @Test
+    void shouldKeepOrderOfViewsFromDifferentThreads() throws Exception {
+        HistoryManager historyManager = new ConcurrentHistoryManager();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        for (int id = 1; id <= 100; id++) {
+            int viewId = id;
+            executor.submit(() -> historyManager.add(task(viewId))).get();
+            historyManager.add(task(1_000 + id));
+        }
+        executor.shutdown();
+
+        List<Task> history = historyManager.getHistory();
+        assertEquals(200, history.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i + 1, history.get(2 * i).getId());
+            assertEquals(1_001 + i, history.get(2 * i + 1).getId());
+        }
+    }
+
+    // Просмотры из разных потоков не теряются, а просмотры одного потока сохраняют свой порядок
+    @Test
+    void shouldNotLoseViewsFromConcurrentThreads() throws Exception {
+        int threads = 8;
+        int views = 5_000;
+        HistoryManager historyManager = new ConcurrentHistoryManager();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int thread = 0; thread < threads; thread++) {
+            int firstId = thread * views + 1;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int id = firstId; id < firstId + views; id++) {
+                    historyManager.add(task(id));
+                    if (id % 1_000 == 0) {
+                        historyManager.getHistory();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        List<Task> history = historyManager.getHistory();
+        assertEquals(threads * views, history.size());
+        assertEquals(threads * views, new HashSet<>(history).size());
+
+        int[] lastIdByThread = new int[threads];
+        for (Task task : history) {
+            int thread = (task.getId() - 1) / views;
+            assertTrue(task.getId() > lastIdByThread[thread], "Порядок просмотров одного потока нарушен");
+            lastIdByThread[thread] = task.getId();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package ru.yandex.practicum;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentTaskManagerTest {
+    private static final int WRITERS = 8;
+    private static final int READERS = 4;
+    private static final int OPERATIONS = 2_000;
+
+    // Писатели параллельно создают, обновляют и удаляют подзадачи общих эпиков, читатели в это время
+    // читают эпики и историю. После завершения данные эпиков должны совпадать с их подзадачами
+    @Test
+    void shouldKeepEpicsConsistentUnderConcurrentWriters() throws Exception {
+        TaskManager manager = Managers.getConcurrent();
+        List<Epic> epics = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            epics.add(manager.createEpic(new Epic("Эпик " + i, "Описание")));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        LocalDateTime base = LocalDateTime.of(2030, 10, 1, 0, 0);
+
+        for (int writer = 0; writer < WRITERS; writer++) {
+            int writerId = writer;
+            futures.add(executor.submit(() -> {
+                start.await();
+                Random random = new Random(writerId);
+                List<Subtask> own = new ArrayList<>();
+                for (int i = 0; i < OPERATIONS; i++) {
+                    int action = random.nextInt(10);
+                    if (action < 6 || own.isEmpty()) {
+                        Epic epic = epics.get(random.nextInt(epics.size()));
+                        // У каждого писателя свой диапазон времени, поэтому пересечений нет
+                        LocalDateTime startTime = base.plusMinutes((long) writerId * OPERATIONS * 2 + i * 2L);
+                        own.add(manager.createSubtask(new Subtask("Сабтаска", "Описание", Duration.ofMinutes(1),
+                                startTime, epic.getId())));
+                    } else if (action < 9) {
+                        Subtask saved = own.get(random.nextInt(own.size()));
+                        Subtask changed = new Subtask("Сабтаска", "Изменена", Duration.ofMinutes(1),
+                                saved.getStartTime(), saved.getEpicId());
+                        changed.setId(saved.getId());
+                        changed.setStatus(Status.values()[random.nextInt(Status.values().length)]);
+                        manager.updateSubtask(changed);
+                    } else {
+                        manager.deleteSubtask(own.remove(random.nextInt(own.size())).getId());
+                    }
+                }
+                return null;
+            }));
+        }
+
+        for (int reader = 0; reader < READERS; reader++) {
+            int readerId = reader;
+            futures.add(executor.submit(() -> {
+                start.await();
+                Random random = new Random(100 + readerId);
+                for (int i = 0; i < OPERATIONS; i++) {
+                    Epic epic = epics.get(random.nextInt(epics.size()));
+                    assertNotNull(manager.getEpic(epic.getId()));
+                    manager.getEpicSubtasks(epic.getId());
+                    manager.getHistory();
+                    if (i % 100 == 0) {
+                        assertNotNull(manager.getPrioritizedTasks());
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        List<Subtask> subtasks = manager.getAllSubtasks();
+        assertEquals(subtasks.size(), subtasks.stream().map(Task::getId).collect(Collectors.toSet()).size(),
+                "ID подзадач не должны повторяться");
+        assertEquals(subtasks.size(), manager.getPrioritizedTasks().size());
+
+        for (Epic epic : epics) {
+            Epic saved = manager.getEpic(epic.getId());
+            List<Subtask> epicSubtasks = subtasks.stream().filter(s -> s.getEpicId() == epic.getId()).toList();
+            Set<Integer> expectedIds = epicSubtasks.stream().map(Task::getId).collect(Collectors.toSet());
+            assertEquals(expectedIds, new HashSet<>(saved.getSubtaskIds()));
+            assertEquals(expectedIds.size(), saved.getSubtaskIds().size(), "Подзадача не должна попасть в эпик дважды");
+            assertEquals(expectedStatus(epicSubtasks), saved.getStatus());
+            assertEquals(epicSubtasks.stream().mapToLong(Task::getDuration).sum(), saved.getDuration());
+        }
+    }
+
+    @Test
+    void shouldReturnSnapshotOfPrioritizedTasks() {
+        TaskManager manager = Managers.getConcurrent();
+        Task task = manager.createTask(new Task("Задача", "Описание", Duration.ofMinutes(5), LocalDateTime.of(2030, 10, 2, 10, 0)));
+        var prioritized = manager.getPrioritizedTasks();
+        manager.deleteTask(task.getId());
+
+        assertEquals(List.of(task), List.copyOf(prioritized));
+        assertThrows(UnsupportedOperationException.class, () -> prioritized.clear());
+    }
+
+    // Прочитанный эпик — копия: последующие изменения подзадач не меняют его после снятия блокировки
+    @Test
+    void shouldReturnCopiesThatLaterWritesDoNotChange() {
+        TaskManager manager = Managers.getConcurrent();
+        Epic epic = manager.createEpic(new Epic("Эпик", "Описание"));
+        Subtask subtask = manager.createSubtask(new Subtask("Сабтаска", "Описание", Duration.ofMinutes(5),
+                LocalDateTime.of(2030, 10, 2, 10, 0), epic.getId()));
+        Epic read = manager.getEpic(epic.getId());
+        Subtask readSubtask = manager.getEpicSubtasks(epic.getId()).getFirst();
+
+        Subtask done = new Subtask("Сабтаска", "Готова", Duration.ofMinutes(5),
+                LocalDateTime.of(2030, 10, 2, 10, 0), epic.getId());
+        done.setId(subtask.getId());
+        done.setStatus(Status.DONE);
+        manager.updateSubtask(done);
+        manager.createSubtask(new Subtask("Вторая", "Описание", Duration.ofMinutes(5),
+                LocalDateTime.of(2030, 10, 2, 12, 0), epic.getId()));
+
+        assertEquals(Status.NEW, read.getStatus());
+        assertEquals(List.of(subtask.getId()), read.getSubtaskIds());
+        assertEquals(LocalDateTime.of(2030, 10, 2, 10, 5), read.getEndTime());
+        assertEquals("Описание", readSubtask.getDescription());
+        assertEquals(Status.IN_PROGRESS, manager.getEpic(epic.getId()).getStatus());
+        assertNotSame(manager.getEpic(epic.getId()), manager.getEpic(epic.getId()));
+    }
+
+    private static Status expectedStatus(List<Subtask> subtasks) {
+        if (subtasks.stream().allMatch(s -> s.getStatus() == Status.NEW)) {
+            return Status.NEW;
+        }
+        if (subtasks.stream().allMatch(s -> s.getStatus() == Status.DONE)) {
+            return Status.DONE;
+        }
+        return Status.IN_PROGRESS;
+    }
+}
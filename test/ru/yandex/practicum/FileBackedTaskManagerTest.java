@@ -7,8 +7,10 @@ import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -109,4 +111,240 @@ public class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskMan
         }
     }
 
+    @Test
+    void shouldRestoreStateFromSnapshotAndJournal() throws IOException {
+        File file = File.createTempFile("board", ".csv");
+        file.deleteOnExit();
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, StorageSettings.journal(100));
+        Task task = manager.createTask(new Task("Задача", "Описание", Duration.ofMinutes(5), LocalDateTime.of(2030, 6, 1, 10, 0)));
+        Task removedTask = manager.createTask(new Task("Задача 2", "Описание 2"));
+        Epic epic = manager.createEpic(new Epic("Эпик", "Описание эпика"));
+        Subtask subtask = manager.createSubtask(new Subtask("Сабтаска", "Описание сабтаски", Duration.ofMinutes(5),
+                LocalDateTime.of(2030, 6, 1, 11, 0), epic.getId()));
+        Subtask doneSubtask = new Subtask("Сабтаска", "Готово", Duration.ofMinutes(5),
+                LocalDateTime.of(2030, 6, 1, 11, 0), epic.getId());
+        doneSubtask.setId(subtask.getId());
+        doneSubtask.setStatus(Status.DONE);
+        manager.updateSubtask(doneSubtask);
+        manager.deleteTask(removedTask.getId());
+
+        assertEquals(1, Files.readAllLines(file.toPath()).size(), "Снимок не должен перезаписываться при каждом изменении");
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, StorageSettings.journal(100));
+        assertEquals(task.getStartTime(), loaded.getTask(task.getId()).getStartTime());
+        assertFalse(loaded.getAllTasks().contains(removedTask));
+        assertEquals(Status.DONE, loaded.getEpic(epic.getId()).getStatus());
+        assertEquals("Готово", loaded.getSubtask(subtask.getId()).getDescription());
+        new TaskJournal(file).reset();
+    }
+
+    @Test
+    void shouldCompactJournalIntoSnapshot() throws IOException {
+        File file = File.createTempFile("board", ".csv");
+        file.deleteOnExit();
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, StorageSettings.journal(2));
+        TaskJournal journal = new TaskJournal(file);
+        manager.createTask(new Task("Задача 1", "Описание"));
+        assertTrue(journal.getFile().exists());
+
+        manager.createTask(new Task("Задача 2", "Описание"));
+        assertFalse(journal.getFile().exists(), "После сжатия журнал должен быть очищен");
+        assertEquals(3, Files.readAllLines(file.toPath()).size());
+
+        manager.createTask(new Task("Задача 3", "Описание"));
+        assertEquals(3, FileBackedTaskManager.loadFromFile(file, StorageSettings.journal(2)).getAllTasks().size());
+        journal.reset();
+    }
+
+    @Test
+    void shouldIgnoreTornLastJournalRecord() throws IOException {
+        File file = File.createTempFile("board", ".csv");
+        file.deleteOnExit();
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, StorageSettings.journal(100));
+        manager.createTask(new Task("Задача", "Описание"));
+        TaskJournal journal = new TaskJournal(file);
+        Files.writeString(journal.getFile().toPath(), "CREATE,2,TASK,Обор", StandardOpenOption.APPEND);
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, StorageSettings.journal(100));
+        assertEquals(1, loaded.getAllTasks().size());
+        journal.reset();
+    }
+
+    @Test
+    void shouldCutTornJournalTailBeforeNextAppend() throws IOException {
+        File file = File.createTempFile("board", ".csv");
+        file.deleteOnExit();
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, StorageSettings.journal(100));
+        Epic epic = manager.createEpic(new Epic("Эпик", "Описание"));
+        TaskJournal journal = new TaskJournal(file);
+        // Обрыв внутри ID эпика: без перевода строки запись не принимается, даже если она разбирается
+        Files.writeString(journal.getFile().toPath(), "CREATE,11,SUBTASK,Обрыв,NEW,d,0,null," + epic.getId() + "1",
+                StandardOpenOption.APPEND);
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, StorageSettings.journal(100));
+        assertTrue(loaded.getAllSubtasks().isEmpty());
+        Task task = loaded.createTask(new Task("После обрыва", "Описание"));
+
+        FileBackedTaskManager reloaded = FileBackedTaskManager.loadFromFile(file, StorageSettings.journal(100));
+        assertEquals(List.of(task), reloaded.getAllTasks());
+        assertEquals("После обрыва", reloaded.getTask(task.getId()).getName());
+        assertTrue(reloaded.getAllSubtasks().isEmpty());
+        journal.reset();
+    }
+
+    @Test
+    void shouldSkipStaleJournalLeftAfterSnapshotWasWritten() throws IOException {
+        File file = File.createTempFile("board", ".csv");
+        file.deleteOnExit();
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, StorageSettings.journal(100));
+        Task task = manager.createTask(new Task("Задача A", "Описание", Duration.ofMinutes(30),
+                LocalDateTime.of(2030, 1, 1, 10, 0)));
+        task.setStartTime(LocalDateTime.of(2030, 1, 1, 12, 0));
+        manager.updateTask(task);
+        Task other = manager.createTask(new Task("Задача B", "Описание", Duration.ofMinutes(30),
+                LocalDateTime.of(2030, 1, 1, 10, 0)));
+        TaskJournal journal = new TaskJournal(file);
+        byte[] staleJournal = Files.readAllBytes(journal.getFile().toPath());
+
+        // Сбой после записи снимка, но до очистки журнала: на диске новый снимок и весь старый журнал
+        manager.compact();
+        Files.write(journal.getFile().toPath(), staleJournal);
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, StorageSettings.journal(100));
+        assertEquals(LocalDateTime.of(2030, 1, 1, 12, 0), loaded.getTask(task.getId()).getStartTime());
+        assertEquals(LocalDateTime.of(2030, 1, 1, 10, 0), loaded.getTask(other.getId()).getStartTime());
+        assertFalse(journal.getFile().exists(), "Устаревший журнал должен быть удалён при загрузке");
+
+        loaded.createTask(new Task("Задача C", "Описание"));
+        assertEquals(3, FileBackedTaskManager.loadFromFile(file, StorageSettings.journal(100)).getAllTasks().size());
+        journal.reset();
+    }
+
+    @Test
+    void shouldCoalesceChangesUntilFlush() throws IOException {
+        File file = File.createTempFile("board", ".csv");
+        file.deleteOnExit();
+        try (FileBackedTaskManager manager = new FileBackedTaskManager(file,
+                StorageSettings.snapshot().withAsyncFlush(60_000, 0))) {
+            for (int i = 0; i < 10; i++) {
+                manager.createTask(new Task("Задача " + i, "Описание"));
+            }
+            assertEquals(10, manager.getPendingChanges());
+
+            manager.flush();
+            assertEquals(0, manager.getPendingChanges());
+            assertEquals(11, Files.readAllLines(file.toPath()).size());
+        }
+    }
+
+    @Test
+    void shouldFlushInBackgroundWhenBatchIsFull() throws Exception {
+        File file = File.createTempFile("board", ".csv");
+        file.deleteOnExit();
+        StorageSettings settings = StorageSettings.journal(1000).withAsyncFlush(0, 3);
+        try (FileBackedTaskManager manager = new FileBackedTaskManager(file, settings)) {
+            manager.createTask(new Task("Задача 1", "Описание"));
+            manager.createTask(new Task("Задача 2", "Описание"));
+            manager.createTask(new Task("Задача 3", "Описание"));
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (manager.getPendingChanges() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, manager.getPendingChanges(), "Фоновый поток должен записать заполненный пакет");
+        }
+
+        assertEquals(3, FileBackedTaskManager.loadFromFile(file, settings).getAllTasks().size());
+        new TaskJournal(file).reset();
+    }
+
+    @Test
+    void shouldRejectChangesAfterClose() throws IOException {
+        File file = File.createTempFile("board", ".csv");
+        file.deleteOnExit();
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, StorageSettings.snapshot().withAsyncFlush(0, 1));
+        Task task = manager.createTask(new Task("Задача", "Описание"));
+        manager.close();
+
+        assertThrows(IllegalStateException.class, () -> manager.createTask(new Task("Задача 2", "Описание")));
+        assertThrows(IllegalStateException.class, () -> manager.deleteTask(task.getId()));
+        assertEquals(List.of(task), manager.getAllTasks(), "Отклонённое изменение не должно менять состояние");
+        assertEquals(1, FileBackedTaskManager.loadFromFile(file).getAllTasks().size());
+    }
+
+    @Test
+    void shouldReplaceSnapshotAtomically() throws IOException {
+        File file = File.createTempFile("board", ".csv");
+        file.deleteOnExit();
+        File temp = new File(file.getPath() + ".tmp");
+        FileBackedTaskManager manager = new FileBackedTaskManager(file,
+                StorageSettings.snapshot().withFsync(FsyncPolicy.ALWAYS, 0));
+        manager.createTask(new Task("Задача", "Описание"));
+        manager.createEpic(new Epic("Эпик", "Описание эпика"));
+
+        assertFalse(temp.exists(), "Временный файл должен быть переименован в файл снимка");
+        assertEquals(3, Files.readAllLines(file.toPath()).size());
+        assertEquals(1, FileBackedTaskManager.loadFromFile(file).getAllEpics().size());
+    }
+
+    @Test
+    void shouldRestoreEpicsAndIndexesOnLoad() throws IOException {
+        File file = File.createTempFile("board", ".csv");
+        file.deleteOnExit();
+        Files.writeString(file.toPath(), String.join("\n",
+                "id,type,name,status,description,duration,startTime,epic",
+                "4,SUBTASK,Подзадача 4,DONE,Описание,30,2030-07-01T11:00,2",
+                "2,EPIC,Эпик 2,NEW,Описание,0,null,",
+                "3,SUBTASK,Подзадача 3,IN_PROGRESS,Описание,30,2030-07-01T10:00,2",
+                "1,TASK,Задача 1,NEW,Описание,15,2030-07-01T09:00,"), StandardCharsets.UTF_8);
+
+        FileBackedTaskManager manager = FileBackedTaskManager.loadFromFile(file);
+        Epic epic = manager.getEpic(2);
+        assertEquals(Status.IN_PROGRESS, epic.getStatus());
+        assertEquals(LocalDateTime.of(2030, 7, 1, 10, 0), epic.getStartTime());
+        assertEquals(60, epic.getDuration());
+        assertEquals(3, manager.getPrioritizedTasks().size());
+        assertEquals(5, manager.createTask(new Task("Задача 5", "Описание")).getId());
+        assertThrows(IllegalArgumentException.class, () -> manager.createTask(new Task("Задача 6", "Описание",
+                Duration.ofMinutes(10), LocalDateTime.of(2030, 7, 1, 11, 20))));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenLoadedTasksCross() throws IOException {
+        File file = File.createTempFile("board", ".csv");
+        file.deleteOnExit();
+        Files.writeString(file.toPath(), String.join("\n",
+                "id,type,name,status,description,duration,startTime,epic",
+                "1,TASK,Задача 1,NEW,Описание,0,2030-07-01T09:10,",
+                "2,TASK,Задача 2,NEW,Описание,30,2030-07-01T09:00,",
+                "3,TASK,Задача 3,NEW,Описание,0,2030-07-01T09:00,"), StandardCharsets.UTF_8);
+
+        assertThrows(IllegalArgumentException.class, () -> FileBackedTaskManager.loadFromFile(file),
+                "Пересекающиеся задачи не должны загружаться");
+    }
+
+    @Test
+    void shouldKeepCommasQuotesAndLineBreaksInText() throws IOException {
+        File file = File.createTempFile("board", ".csv");
+        file.deleteOnExit();
+        String name = "Купить молоко, хлеб";
+        String description = "Сказать \"спасибо\",\nпотом \"\"домой\"\"\r\n";
+
+        FileBackedTaskManager manager = new FileBackedTaskManager(file);
+        Task task = manager.createTask(new Task(name, description));
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file);
+        assertEquals(name, loaded.getTask(task.getId()).getName());
+        assertEquals(description, loaded.getTask(task.getId()).getDescription());
+
+        File journalFile = File.createTempFile("board", ".csv");
+        journalFile.deleteOnExit();
+        FileBackedTaskManager journalManager = new FileBackedTaskManager(journalFile, StorageSettings.journal(100));
+        Epic epic = journalManager.createEpic(new Epic(name, description));
+        Subtask subtask = journalManager.createSubtask(new Subtask("Сабтаска", description, Duration.ofMinutes(5),
+                LocalDateTime.of(2030, 7, 1, 10, 0), epic.getId()));
+        FileBackedTaskManager journalLoaded = FileBackedTaskManager.loadFromFile(journalFile, StorageSettings.journal(100));
+        assertEquals(name, journalLoaded.getEpic(epic.getId()).getName());
+        assertEquals(description, journalLoaded.getSubtask(subtask.getId()).getDescription());
+        new TaskJournal(journalFile).reset();
+    }
 }
@@ -0,0 +1,194 @@
+package ru.yandex.practicum;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpTaskServerTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+    private TaskManager manager;
+    private HttpTaskServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        manager = Managers.getConcurrent();
+        server = new HttpTaskServer(manager, 0);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    void shouldCreateGetAndDeleteTask() throws Exception {
+        Task task = new Task("Задача, \"срочная\"", "Описание", Duration.ofMinutes(15),
+                LocalDateTime.of(2030, 12, 1, 10, 0));
+
+        HttpResponse<String> created = post("/tasks", TaskJson.toJson(task));
+        assertEquals(201, created.statusCode());
+        Task createdTask = TaskJson.fromJson(created.body(), TaskType.TASK);
+        assertEquals(List.of(createdTask), manager.getAllTasks());
+        assertEquals("Задача, \"срочная\"", manager.getTask(createdTask.getId()).getName());
+
+        HttpResponse<String> loaded = get("/tasks/" + createdTask.getId());
+        assertEquals(200, loaded.statusCode());
+        assertEquals(task.getStartTime(), TaskJson.fromJson(loaded.body(), TaskType.TASK).getStartTime());
+
+        assertEquals(200, delete("/tasks/" + createdTask.getId()).statusCode());
+        assertTrue(manager.getAllTasks().isEmpty());
+        assertEquals(404, get("/tasks/" + createdTask.getId()).statusCode());
+    }
+
+    @Test
+    void shouldReturnNotAcceptableForOverlappingTask() throws Exception {
+        manager.createTask(new Task("Задача", "Описание", Duration.ofMinutes(30), LocalDateTime.of(2030, 12, 2, 10, 0)));
+        Task crossTask = new Task("Пересечение", "Описание", Duration.ofMinutes(30),
+                LocalDateTime.of(2030, 12, 2, 10, 15));
+
+        assertEquals(406, post("/tasks", TaskJson.toJson(crossTask)).statusCode());
+        assertEquals(1, manager.getAllTasks().size());
+    }
+
+    @Test
+    void shouldReturnBadRequestForInvalidInput() throws Exception {
+        assertEquals(400, post("/tasks", "{\"name\":").statusCode());
+        assertEquals(400, get("/tasks/abc").statusCode());
+        assertEquals(404, get("/epics/42/subtasks").statusCode());
+    }
+
+    @Test
+    void shouldServeEpicSubtasksHistoryAndPrioritized() throws Exception {
+        Epic epic = manager.createEpic(new Epic("Эпик", "Описание"));
+        Subtask subtask = new Subtask("Сабтаска", "Описание", Duration.ofMinutes(10),
+                LocalDateTime.of(2030, 12, 3, 9, 0), epic.getId());
+
+        HttpResponse<String> created = post("/subtasks", TaskJson.toJson(subtask));
+        assertEquals(201, created.statusCode());
+        int subtaskId = TaskJson.fromJson(created.body(), TaskType.SUBTASK).getId();
+
+        HttpResponse<String> epicSubtasks = get("/epics/" + epic.getId() + "/subtasks");
+        assertEquals(200, epicSubtasks.statusCode());
+        assertTrue(epicSubtasks.body().contains("\"id\":" + subtaskId));
+        assertTrue(epicSubtasks.body().contains("\"epicId\":" + epic.getId()));
+
+        get("/subtasks/" + subtaskId);
+        String history = get("/history").body();
+        assertTrue(history.indexOf("\"id\":" + epic.getId()) < history.indexOf("\"id\":" + subtaskId),
+                "История должна идти в порядке просмотров");
+
+        String prioritized = get("/prioritized").body();
+        assertTrue(prioritized.startsWith("[{\"id\":" + subtaskId));
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenUpdatingUnknownId() throws Exception {
+        Epic epic = manager.createEpic(new Epic("Эпик", "Описание"));
+        Task task = new Task("Задача", "Описание");
+        task.setId(42);
+        Epic unknownEpic = new Epic("Эпик", "Описание");
+        unknownEpic.setId(42);
+        Subtask subtask = new Subtask("Сабтаска", "Описание", Duration.ZERO, null, epic.getId());
+        subtask.setId(epic.getId());
+
+        assertEquals(404, post("/tasks", TaskJson.toJson(task)).statusCode());
+        assertEquals(404, post("/epics", TaskJson.toJson(unknownEpic)).statusCode());
+        assertEquals(404, post("/subtasks", TaskJson.toJson(subtask)).statusCode(),
+                "ID эпика не должен обновляться как подзадача");
+        assertTrue(manager.getAllTasks().isEmpty());
+        assertTrue(manager.getAllSubtasks().isEmpty());
+    }
+
+    @Test
+    void shouldRespondWithStoredEpicAfterUpdate() throws Exception {
+        Epic epic = manager.createEpic(new Epic("Эпик", "Описание"));
+        Subtask subtask = manager.createSubtask(new Subtask("Сабтаска", "Описание", Duration.ofMinutes(10),
+                LocalDateTime.of(2030, 12, 4, 9, 0), epic.getId()));
+        Epic renamed = new Epic("Новое имя", "Описание");
+        renamed.setId(epic.getId());
+
+        HttpResponse<String> updated = post("/epics", TaskJson.toJson(renamed));
+        assertEquals(201, updated.statusCode());
+        assertEquals(TaskJson.toJson(manager.getEpic(epic.getId())), updated.body());
+        assertTrue(updated.body().contains("\"name\":\"Новое имя\""), updated.body());
+        assertTrue(updated.body().contains(String.valueOf(subtask.getId())), updated.body());
+    }
+
+    @Test
+    void shouldNotAddEpicToHistoryWhenListingItsSubtasks() throws Exception {
+        Epic epic = manager.createEpic(new Epic("Эпик", "Описание"));
+
+        HttpResponse<String> subtasks = get("/epics/" + epic.getId() + "/subtasks");
+        assertEquals(200, subtasks.statusCode());
+        assertEquals("[]", subtasks.body());
+        assertTrue(manager.getHistory().isEmpty());
+    }
+
+    // Списки отдаются частями по мере обхода менеджера, в ответ попадают только задачи нужного типа
+    @Test
+    void shouldStreamListsInChunks() throws Exception {
+        Task task = manager.createTask(new Task("Задача", "Описание"));
+        Epic epic = manager.createEpic(new Epic("Эпик", "Описание"));
+        Subtask subtask = manager.createSubtask(new Subtask("Сабтаска", "Описание", Duration.ZERO, null, epic.getId()));
+
+        HttpResponse<String> tasks = get("/tasks");
+        assertEquals(200, tasks.statusCode());
+        assertEquals(TaskJson.toJson(List.of(task)), tasks.body());
+        assertEquals("chunked", tasks.headers().firstValue("Transfer-Encoding").orElse(null));
+        assertTrue(tasks.headers().firstValue("Content-Length").isEmpty());
+        assertEquals(TaskJson.toJson(List.of(manager.getEpic(epic.getId()))), get("/epics").body());
+        assertEquals(TaskJson.toJson(List.of(subtask)), get("/subtasks").body());
+
+        HttpResponse<String> single = get("/tasks/" + task.getId());
+        assertEquals(TaskJson.toJson(task), single.body());
+        assertTrue(single.headers().firstValue("Content-Length").isPresent());
+    }
+
+    @Test
+    void shouldServeMetricsOnlyForInstrumentedManager() throws Exception {
+        assertEquals(404, get("/metrics").statusCode());
+
+        server.stop();
+        InstrumentedTaskManager instrumented = Managers.getInstrumented(Managers.getConcurrent());
+        server = new HttpTaskServer(instrumented, 0);
+        server.start();
+        post("/epics", TaskJson.toJson(new Epic("Эпик", "Описание")));
+
+        HttpResponse<String> metrics = get("/metrics");
+        assertEquals(200, metrics.statusCode());
+        assertTrue(metrics.body().contains("createEpic"), metrics.body());
+        assertTrue(metrics.body().contains("epics=1"), metrics.body());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return send(HttpRequest.newBuilder(uri(path)).GET().build());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        return send(HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.ofString(body)).build());
+    }
+
+    private HttpResponse<String> delete(String path) throws Exception {
+        return send(HttpRequest.newBuilder(uri(path)).DELETE().build());
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+}
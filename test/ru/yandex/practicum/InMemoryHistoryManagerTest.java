@@ -56,4 +56,60 @@ public class InMemoryHistoryManagerTest {
         assertTrue(history.isEmpty());
     }
 
+    @Test
+    void shouldEvictEldestViewWhenCapacityExceeded() {
+        HistoryManager boundedHistory = Managers.getDefaultHistory(2);
+        Task first = new Task("Задача 1", "Описание");
+        first.setId(1);
+        Task second = new Task("Задача 2", "Описание");
+        second.setId(2);
+        Task third = new Task("Задача 3", "Описание");
+        third.setId(3);
+
+        boundedHistory.add(first);
+        boundedHistory.add(second);
+        boundedHistory.add(first);
+        boundedHistory.add(third);
+
+        assertEquals(List.of(first, third), boundedHistory.getHistory(), "Вытесняться должен самый давний просмотр");
+        assertThrows(IllegalArgumentException.class, () -> Managers.getDefaultHistory(0));
+    }
+
+    @Test
+    void shouldReadHistoryByPages() {
+        HistoryManager pagedHistory = Managers.getDefaultHistory();
+        for (int id = 1; id <= 5; id++) {
+            Task task = new Task("Задача " + id, "Описание");
+            task.setId(id);
+            pagedHistory.add(task);
+        }
+
+        assertEquals(List.of(5, 4), ids(pagedHistory.getLastViewed(2)));
+        assertEquals(List.of(5, 4, 3, 2, 1), ids(pagedHistory.getLastViewed(10)));
+        assertEquals(List.of(1, 2), ids(pagedHistory.getHistoryAfter(HistoryManager.NO_CURSOR, 2)));
+        assertEquals(List.of(3, 4), ids(pagedHistory.getHistoryAfter(2, 2)));
+        assertEquals(List.of(5), ids(pagedHistory.getHistoryAfter(4, 2)));
+        assertTrue(pagedHistory.getHistoryAfter(42, 2).isEmpty(), "Неизвестный курсор даёт пустую страницу");
+        assertThrows(IllegalArgumentException.class, () -> pagedHistory.getLastViewed(-1));
+    }
+
+    @Test
+    void shouldReuseSnapshotUntilHistoryChanges() {
+        HistoryManager snapshotHistory = Managers.getDefaultHistory();
+        Task task = new Task("Задача", "Описание");
+        task.setId(1);
+        snapshotHistory.add(task);
+
+        List<Task> snapshot = snapshotHistory.getHistorySnapshot();
+        assertSame(snapshot, snapshotHistory.getHistorySnapshot(), "Без изменений снимок не должен копироваться");
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(task));
+
+        snapshotHistory.remove(1);
+        assertTrue(snapshotHistory.getHistorySnapshot().isEmpty());
+        assertEquals(List.of(task), snapshot, "Выданный снимок не меняется вместе с историей");
+    }
+
+    private static List<Integer> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
 }
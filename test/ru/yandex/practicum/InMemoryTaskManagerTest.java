@@ -1,5 +1,139 @@
 package ru.yandex.practicum;
 
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
 public class InMemoryTaskManagerTest extends TaskManagerTest<InMemoryTaskManager> {
 
+    @Test
+    void shouldNotReuseIdsReservedForBatch() {
+        InMemoryTaskManager manager = new InMemoryTaskManager();
+        Task first = manager.createTask(new Task("Задача", "Описание"));
+
+        IdGenerator.IdRange range = manager.reserveIds(2);
+        Task imported1 = new Task("Импорт 1", "Описание", Duration.ofMinutes(5), LocalDateTime.of(2030, 5, 1, 10, 0));
+        Task imported2 = new Task("Импорт 2", "Описание", Duration.ofMinutes(5), LocalDateTime.of(2030, 5, 1, 11, 0));
+        imported1.setId(range.next());
+        imported2.setId(range.next());
+        assertFalse(range.hasNext());
+
+        Task next = manager.createTask(new Task("Задача 2", "Описание"));
+        manager.createTask(imported1);
+        manager.createTask(imported2);
+
+        assertEquals(first.getId() + 1, imported1.getId());
+        assertEquals(first.getId() + 2, imported2.getId());
+        assertEquals(first.getId() + 3, next.getId(), "Новый ID не должен попадать в зарезервированный диапазон");
+    }
+
+    @Test
+    void shouldContinueIdsAfterExplicitId() {
+        InMemoryTaskManager manager = new InMemoryTaskManager();
+        Task task = new Task("Задача", "Описание");
+        task.setId(100);
+        manager.createTask(task);
+
+        Epic epic = manager.createEpic(new Epic("Эпик", "Описание эпика"));
+        assertEquals(101, epic.getId());
+    }
+
+    @Test
+    void shouldNotAddListedTasksToHistoryByDefault() {
+        InMemoryTaskManager manager = new InMemoryTaskManager();
+        Task task = manager.createTask(new Task("Задача", "Описание"));
+        Epic epic = manager.createEpic(new Epic("Эпик", "Описание эпика"));
+        manager.getTask(task.getId());
+
+        manager.getAllTasks();
+        manager.getAllEpics();
+        manager.getAllSubtasks();
+        List<Task> visited = new ArrayList<>();
+        manager.forEachTask(visited::add);
+
+        assertEquals(List.of(task, epic), visited);
+        assertEquals(List.of(task), manager.getHistory(), "Списки не должны менять историю");
+    }
+
+    @Test
+    void shouldAddListedTasksToHistoryWhenPolicyAllows() {
+        TaskManager manager = Managers.getDefault(HistoryPolicy.ALL_READS);
+        Task task = manager.createTask(new Task("Задача", "Описание"));
+        Epic epic = manager.createEpic(new Epic("Эпик", "Описание эпика"));
+
+        manager.getAllEpics();
+        manager.getAllTasks();
+
+        assertEquals(List.of(epic, task), manager.getHistory());
+    }
+
+    // Сводные данные эпиков, обновляемые приращениями, должны совпадать с полным пересчётом по подзадачам
+    @Test
+    void shouldMatchFullRecomputeOfEpicsAfterRandomChanges() {
+        Random random = new Random(18);
+        InMemoryTaskManager manager = new InMemoryTaskManager();
+        List<Integer> epicIds = new ArrayList<>();
+        LocalDateTime base = LocalDateTime.of(2030, 11, 1, 0, 0);
+
+        for (int step = 0; step < 3_000; step++) {
+            int action = random.nextInt(100);
+            List<Subtask> subtasks = manager.getAllSubtasks();
+            if (epicIds.isEmpty() || action < 5) {
+                epicIds.add(manager.createEpic(new Epic("Эпик", "Описание")).getId());
+            } else if (action < 45 || subtasks.isEmpty()) {
+                LocalDateTime startTime = random.nextInt(5) == 0 ? null : base.plusMinutes(step * 60L);
+                Subtask subtask = manager.createSubtask(new Subtask("Сабтаска", "Описание",
+                        Duration.ofMinutes(random.nextInt(50)), startTime, epicIds.get(random.nextInt(epicIds.size()))));
+                if (random.nextBoolean()) {
+                    // Изменение сохранённого объекта до вызова updateSubtask не должно сбивать счётчики
+                    subtask.setStatus(Status.values()[random.nextInt(Status.values().length)]);
+                    manager.updateSubtask(subtask);
+                }
+            } else if (action < 80) {
+                Subtask saved = subtasks.get(random.nextInt(subtasks.size()));
+                Subtask changed = new Subtask("Сабтаска", "Изменена", Duration.ofMinutes(saved.getDuration()),
+                        saved.getStartTime(), saved.getEpicId());
+                changed.setId(saved.getId());
+                changed.setStatus(Status.values()[random.nextInt(Status.values().length)]);
+                manager.updateSubtask(changed);
+            } else if (action < 97) {
+                manager.deleteSubtask(subtasks.get(random.nextInt(subtasks.size())).getId());
+            } else if (action < 98) {
+                manager.deleteAllSubtasks();
+            } else {
+                manager.deleteEpic(epicIds.remove(random.nextInt(epicIds.size())));
+            }
+
+            for (Epic epic : manager.getAllEpics()) {
+                assertEpicMatchesSubtasks(epic, manager.getEpicSubtasks(epic.getId()));
+            }
+        }
+    }
+
+    private static void assertEpicMatchesSubtasks(Epic epic, List<Subtask> subtasks) {
+        Status expectedStatus = Status.IN_PROGRESS;
+        if (subtasks.stream().allMatch(subtask -> subtask.getStatus() == Status.NEW)) {
+            expectedStatus = Status.NEW;
+        } else if (subtasks.stream().allMatch(subtask -> subtask.getStatus() == Status.DONE)) {
+            expectedStatus = Status.DONE;
+        }
+        LocalDateTime expectedStart = subtasks.stream().map(Task::getStartTime).filter(Objects::nonNull)
+                .min(Comparator.naturalOrder()).orElse(null);
+
+        LocalDateTime expectedEnd = subtasks.stream().map(Task::getEndTime).filter(Objects::nonNull)
+                .max(Comparator.naturalOrder()).orElse(null);
+
+        assertEquals(expectedStatus, epic.getStatus());
+        assertEquals(subtasks.stream().mapToLong(Task::getDuration).sum(), epic.getDuration());
+        assertEquals(expectedStart, epic.getStartTime());
+        assertEquals(expectedEnd, epic.getEndTime());
+    }
 }
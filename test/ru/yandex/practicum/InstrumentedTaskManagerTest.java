@@ -0,0 +1,101 @@
+package ru.yandex.practicum;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InstrumentedTaskManagerTest {
+
+    @Test
+    void shouldCountCallsAndErrorsPerOperation() {
+        InstrumentedTaskManager manager = Managers.getInstrumented(Managers.getDefault());
+        Task task = manager.createTask(new Task("Задача", "Описание", Duration.ofMinutes(30),
+                LocalDateTime.of(2030, 1, 1, 10, 0)));
+        manager.getTask(task.getId());
+        manager.getTask(task.getId());
+        assertThrows(TaskOverlapException.class, () -> manager.createTask(new Task("Пересечение", "Описание",
+                Duration.ofMinutes(30), LocalDateTime.of(2030, 1, 1, 10, 15))));
+
+        OperationMetrics createTask = operation(manager, "createTask");
+        assertEquals(2, createTask.getCount());
+        assertEquals(1, createTask.getErrors());
+        assertEquals(2, operation(manager, "getTask").getCount());
+        assertEquals(0, operation(manager, "deleteTask").getCount());
+        assertTrue(createTask.getMaxMicros() >= createTask.getP50Micros());
+
+        String dump = manager.dump();
+        assertTrue(dump.contains("createTask"), dump);
+        assertTrue(dump.contains("errors=1"), dump);
+        assertFalse(dump.contains("deleteTask"), dump);
+        assertTrue(dump.contains("store tasks=1 epics=0 subtasks=0 history=1"), dump);
+
+        manager.reset();
+        assertEquals(0, createTask.getCount());
+        assertEquals(0, createTask.getErrors());
+    }
+
+    @Test
+    void shouldRecordStorageTimersAndBytesWritten() throws IOException {
+        File file = Files.createTempFile("tasks", ".csv").toFile();
+        try {
+            InstrumentedTaskManager manager = Managers.getInstrumented(new FileBackedTaskManager(file));
+            manager.createTask(new Task("Задача", "Описание", Duration.ofMinutes(30),
+                    LocalDateTime.of(2030, 1, 1, 10, 0)));
+            manager.createEpic(new Epic("Эпик", "Описание"));
+
+            StorageMetrics storage = manager.getStorageMetrics();
+            assertEquals(2, storage.getSave().getCount());
+            assertEquals(2, storage.getSnapshotCount());
+            assertEquals(file.length(), storage.getLastSnapshotBytes());
+            assertTrue(storage.getBytesWritten() > storage.getLastSnapshotBytes());
+            assertTrue(manager.dump().contains("storage bytesWritten=" + storage.getBytesWritten()));
+
+            FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file);
+            assertEquals(1, loaded.getStorageMetrics().getLoad().getCount());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    void shouldExposeMetricsThroughJmx() throws Exception {
+        InstrumentedTaskManager manager = Managers.getInstrumented(Managers.getDefault());
+        manager.createEpic(new Epic("Эпик", "Описание"));
+        manager.registerMBeans("test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName managerName = new ObjectName("ru.yandex.practicum:type=TaskManager,name=\"test\"");
+        ObjectName operationName = new ObjectName(
+                "ru.yandex.practicum:type=TaskManager,name=\"test\",operation=createEpic");
+        InstrumentedTaskManager replacement = Managers.getInstrumented(Managers.getDefault());
+        try {
+            assertEquals(1, server.getAttribute(managerName, "EpicCount"));
+            assertEquals(1L, server.getAttribute(operationName, "Count"));
+            assertTrue(((String) server.invoke(managerName, "dump", null, null)).contains("createEpic"));
+
+            // Повторная регистрация под тем же именем заменяет прежнюю
+            replacement.registerMBeans("test");
+            assertEquals(0L, server.getAttribute(operationName, "Count"));
+        } finally {
+            manager.unregisterMBeans();
+            replacement.unregisterMBeans();
+        }
+        assertFalse(server.isRegistered(managerName));
+        assertFalse(server.isRegistered(operationName));
+    }
+
+    private static OperationMetrics operation(InstrumentedTaskManager manager, String name) {
+        return manager.getOperations().stream()
+                .filter(operation -> operation.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+}
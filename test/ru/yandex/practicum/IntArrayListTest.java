@@ -0,0 +1,91 @@
+package ru.yandex.practicum;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntArrayListTest {
+
+    @Test
+    void shouldKeepOrderAfterRemove() {
+        IntArrayList list = new IntArrayList();
+        for (int i = 1; i <= 10; i++) {
+            list.addInt(i);
+        }
+
+        assertTrue(list.removeInt(3));
+        assertFalse(list.removeInt(42));
+
+        assertEquals(List.of(1, 2, 4, 5, 6, 7, 8, 9, 10), list);
+        assertArrayEquals(new int[]{1, 2, 4, 5, 6, 7, 8, 9, 10}, list.toIntArray());
+        assertEquals(2, list.indexOfInt(4));
+    }
+
+    // В длинном списке удаление идёт по индексу позиций, порядок и результат те же, что у ArrayList
+    @Test
+    void shouldRemoveByIndexedPositionKeepingOrder() {
+        IntArrayList list = new IntArrayList();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            list.addInt(i * 3);
+            expected.add(i * 3);
+        }
+
+        Random random = new Random(7);
+        for (int step = 0; step < 3_000; step++) {
+            int value = random.nextInt(3_000);
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    list.addInt(value);
+                    expected.add(value);
+                }
+                case 1 -> assertEquals(expected.indexOf(value), list.indexOfInt(value));
+                default -> assertEquals(expected.remove(Integer.valueOf(value)), list.removeInt(value));
+            }
+            if (step % 500 == 0) {
+                assertEquals(expected, list);
+            }
+        }
+        assertEquals(expected, list);
+        assertEquals(expected.size(), list.size());
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), list.toIntArray());
+    }
+
+    @Test
+    void shouldInsertAtIndex() {
+        IntArrayList list = new IntArrayList(1);
+        list.addInt(1);
+        list.addInt(4);
+        list.addInt(1, 3);
+        list.addInt(1, 2);
+        list.add(0, 0);
+
+        assertEquals(List.of(0, 1, 2, 3, 4), list);
+        assertThrows(IndexOutOfBoundsException.class, () -> list.addInt(6, 5));
+    }
+
+    @Test
+    void shouldSupportListMutatorsOfEpicSubtasks() {
+        Epic epic = new Epic("Эпик", "Описание");
+        List<Integer> subtaskIds = epic.getSubtaskIds();
+        subtaskIds.add(2);
+        subtaskIds.add(0, 1);
+        assertEquals(2, subtaskIds.set(1, 3));
+        subtaskIds.remove(Integer.valueOf(1));
+
+        assertEquals(List.of(3), epic.getSubtaskIds());
+        assertThrows(IndexOutOfBoundsException.class, () -> subtaskIds.set(1, 4));
+    }
+
+    @Test
+    void shouldThrowForIndexOutOfBounds() {
+        IntArrayList list = new IntArrayList();
+        list.addInt(1);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> list.getInt(1));
+    }
+}
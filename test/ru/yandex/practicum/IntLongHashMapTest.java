@@ -0,0 +1,42 @@
+package ru.yandex.practicum;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntLongHashMapTest {
+
+    @Test
+    void shouldBehaveLikeHashMap() {
+        Random random = new Random(12);
+        IntLongHashMap map = new IntLongHashMap();
+        Map<Integer, Long> expected = new HashMap<>();
+
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(2_000) - 1_000;
+            if (random.nextInt(3) == 0) {
+                Long removed = expected.remove(key);
+                assertEquals(removed == null ? IntLongHashMap.NO_VALUE : removed, map.remove(key));
+            } else {
+                long value = random.nextInt(1_000_000);
+                expected.put(key, value);
+                map.put(key, value);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (int key = -1_000; key < 1_000; key++) {
+            assertEquals(expected.getOrDefault(key, IntLongHashMap.NO_VALUE), map.get(key));
+        }
+        assertArrayEquals(expected.keySet().stream().mapToInt(Integer::intValue).sorted().toArray(), map.sortedKeys());
+    }
+
+    @Test
+    void shouldRejectNegativeValues() {
+        assertThrows(IllegalArgumentException.class, () -> new IntLongHashMap().put(1, -5));
+    }
+}
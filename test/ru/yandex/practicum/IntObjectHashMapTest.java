@@ -0,0 +1,56 @@
+package ru.yandex.practicum;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntObjectHashMapTest {
+
+    @Test
+    void shouldBehaveLikeLinkedHashMap() {
+        Random random = new Random(19);
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+        Map<Integer, String> expected = new LinkedHashMap<>();
+
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(2_000) - 1_000;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                String value = "v" + i;
+                assertEquals(expected.put(key, value), map.put(key, value));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (int key = -1_000; key < 1_000; key++) {
+            assertEquals(expected.get(key), map.get(key));
+            assertEquals(expected.containsKey(key), map.containsKey(key));
+        }
+
+        List<Integer> keys = new ArrayList<>();
+        map.forEachKey(keys::add);
+        assertEquals(new ArrayList<>(expected.keySet()), keys, "Ключи обходятся в порядке вставки");
+        assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(map.values()));
+    }
+
+    @Test
+    void shouldBeEmptyAfterClear() {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+        for (int i = 1; i <= 100; i++) {
+            map.put(i, "v" + i);
+        }
+        map.clear();
+        map.put(7, "новое");
+
+        assertEquals(1, map.size());
+        assertNull(map.get(1));
+        assertEquals(List.of("новое"), new ArrayList<>(map.values()));
+    }
+}
@@ -0,0 +1,62 @@
+package ru.yandex.practicum;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    void shouldPlaceEveryValueInsideItsBucket() {
+        long[] values = {0, 1, 15, 16, 17, 31, 32, 33, 1000, 1_000_000, (1L << 40) - 1, 1L << 40};
+        for (long value : values) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(value <= LatencyHistogram.upperBound(bucket), "Значение " + value);
+            if (bucket > 0) {
+                assertTrue(value > LatencyHistogram.upperBound(bucket - 1), "Значение " + value);
+            }
+        }
+        assertEquals(LatencyHistogram.bucketOf(1L << 50), LatencyHistogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    void shouldReportPercentilesWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random random = new Random(7);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // Логнормальные задержки от сотен наносекунд до десятков миллисекунд
+            values[i] = (long) Math.exp(9 + 2 * random.nextGaussian());
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertEquals(values.length, histogram.getCount());
+        assertEquals(values[values.length - 1], histogram.getMaxNanos());
+        assertEquals(values[values.length - 1], histogram.getValueAtPercentile(100));
+        for (double percentile : new double[]{1, 50, 90, 99, 99.9}) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long reported = histogram.getValueAtPercentile(percentile);
+            assertTrue(reported >= exact && reported <= exact + exact / 16 + 1,
+                    "p" + percentile + ": " + reported + " вместо " + exact);
+        }
+    }
+
+    @Test
+    void shouldResetAndRejectInvalidPercentile() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+        histogram.record(-5);
+        histogram.record(500);
+        assertEquals(250, histogram.getMeanNanos());
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxNanos());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(101));
+    }
+}
@@ -0,0 +1,232 @@
+package ru.yandex.practicum;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedTaskManagerTest extends TaskManagerTest<MappedTaskManager> {
+    private MappedTaskManager mappedManager;
+
+    // Общие тесты TaskManagerTest выполняются на менеджере с файлом записей
+    @BeforeEach
+    void openMappedManager() throws IOException {
+        mappedManager = Managers.getMapped(newFile());
+        taskManager = mappedManager;
+    }
+
+    @AfterEach
+    void closeMappedManager() {
+        mappedManager.close();
+        taskManager = Managers.getDefault();
+    }
+
+    private static File newFile() throws IOException {
+        File file = File.createTempFile("archive", ".records");
+        file.delete();
+        file.deleteOnExit();
+        return file;
+    }
+
+    @Test
+    void shouldKeepTasksBetweenOpenings() throws IOException {
+        File file = newFile();
+        Task task;
+        Epic epic;
+        Subtask subtask;
+        try (MappedTaskManager manager = Managers.getMapped(file)) {
+            task = manager.createTask(new Task("Задача, срочная", null, Duration.ofMinutes(15),
+                    LocalDateTime.of(2030, 9, 1, 10, 0, 30)));
+            epic = manager.createEpic(new Epic("Эпик", "Описание эпика"));
+            subtask = manager.createSubtask(new Subtask("Сабтаска", "Описание", Duration.ofMinutes(10),
+                    LocalDateTime.of(2030, 9, 1, 11, 0), epic.getId()));
+            Subtask done = new Subtask("Сабтаска", "Готово", Duration.ofMinutes(10),
+                    LocalDateTime.of(2030, 9, 1, 11, 0), epic.getId());
+            done.setId(subtask.getId());
+            done.setStatus(Status.DONE);
+            manager.updateSubtask(done);
+        }
+
+        try (MappedTaskManager manager = Managers.getMapped(file)) {
+            Task loadedTask = manager.getTask(task.getId());
+            assertEquals("Задача, срочная", loadedTask.getName());
+            assertNull(loadedTask.getDescription());
+            assertEquals(task.getStartTime(), loadedTask.getStartTime());
+
+            Epic loadedEpic = manager.getEpic(epic.getId());
+            assertEquals(Status.DONE, loadedEpic.getStatus());
+            assertEquals(List.of(subtask.getId()), loadedEpic.getSubtaskIds());
+            assertEquals(subtask.getStartTime(), loadedEpic.getStartTime());
+            assertEquals(subtask.getEndTime(), loadedEpic.getEndTime());
+            assertEquals("Готово", manager.getSubtask(subtask.getId()).getDescription());
+
+            assertEquals(List.of(task, subtask), new ArrayList<>(manager.getPrioritizedTasks()));
+            assertEquals(List.of(task, epic, subtask), manager.getHistory());
+
+            Epic nextEpic = manager.createEpic(new Epic("Эпик 2", "Описание"));
+            assertEquals(subtask.getId() + 1, nextEpic.getId(), "ID должны продолжаться после загруженных");
+        }
+    }
+
+    @Test
+    void shouldCheckCrossingAgainstArchivedTasks() throws IOException {
+        File file = newFile();
+        try (MappedTaskManager manager = Managers.getMapped(file)) {
+            manager.createTask(new Task("Задача", "Описание", Duration.ofMinutes(60), LocalDateTime.of(2030, 9, 2, 10, 0)));
+        }
+
+        try (MappedTaskManager manager = Managers.getMapped(file)) {
+            assertThrows(IllegalArgumentException.class, () -> manager.createTask(
+                    new Task("Задача 2", "Описание", Duration.ofMinutes(10), LocalDateTime.of(2030, 9, 2, 10, 30))));
+            Task next = manager.createTask(
+                    new Task("Задача 3", "Описание", Duration.ofMinutes(10), LocalDateTime.of(2030, 9, 2, 11, 0)));
+            assertEquals(List.of(next), manager.getOverlappingTasks(
+                    LocalDateTime.of(2030, 9, 2, 11, 5), LocalDateTime.of(2030, 9, 2, 12, 0)));
+        }
+    }
+
+    @Test
+    void shouldDeleteTasksAndCompactFile() throws IOException {
+        File file = newFile();
+        try (MappedTaskManager manager = Managers.getMapped(file)) {
+            Task task = manager.createTask(new Task("Задача", "Описание"));
+            Epic epic = manager.createEpic(new Epic("Эпик", "Описание эпика"));
+            Subtask subtask = manager.createSubtask(new Subtask("Сабтаска", "Описание", Duration.ofMinutes(10),
+                    LocalDateTime.of(2030, 9, 3, 10, 0), epic.getId()));
+            manager.getTask(task.getId());
+            for (int i = 0; i < 100; i++) {
+                Epic renamed = new Epic("Эпик " + i, "Описание эпика");
+                renamed.setId(epic.getId());
+                manager.updateEpic(renamed);
+            }
+
+            manager.deleteTask(task.getId());
+            manager.deleteSubtask(subtask.getId());
+            assertNull(manager.getTask(task.getId()));
+            assertTrue(manager.getHistory().isEmpty());
+            assertTrue(manager.getEpic(epic.getId()).getSubtaskIds().isEmpty());
+            assertTrue(manager.getPrioritizedTasks().isEmpty());
+
+            long sizeBefore = file.length();
+            manager.compact();
+            assertTrue(file.length() < sizeBefore);
+            assertEquals("Эпик 99", manager.getEpic(epic.getId()).getName());
+        }
+
+        try (MappedTaskManager manager = Managers.getMapped(file)) {
+            assertEquals(1, manager.getAllEpics().size());
+            assertTrue(manager.getAllTasks().isEmpty());
+            assertTrue(manager.getAllSubtasks().isEmpty());
+        }
+    }
+
+    @Test
+    void shouldRejectDuplicateIdsAndKeepIdsSorted() throws IOException {
+        try (MappedTaskManager manager = Managers.getMapped(newFile())) {
+            Epic epic = new Epic("Эпик", "Описание");
+            epic.setId(10);
+            manager.createEpic(epic);
+            Task task = new Task("Задача", "Описание");
+            task.setId(5);
+            manager.createTask(task);
+
+            Epic sameEpic = new Epic("Эпик 2", "Описание");
+            sameEpic.setId(10);
+            assertThrows(IllegalArgumentException.class, () -> manager.createEpic(sameEpic));
+            Subtask sameSubtask = new Subtask("Сабтаска", "Описание", Duration.ZERO, null, 10);
+            sameSubtask.setId(5);
+            assertThrows(IllegalArgumentException.class, () -> manager.createSubtask(sameSubtask));
+            assertEquals("Задача", manager.getTask(5).getName());
+            assertTrue(manager.getEpic(10).getSubtaskIds().isEmpty());
+
+            for (int id : new int[]{30, 20, 40}) {
+                Subtask subtask = new Subtask("Сабтаска " + id, "Описание", Duration.ZERO, null, 10);
+                subtask.setId(id);
+                manager.createSubtask(subtask);
+            }
+            manager.deleteSubtask(30);
+            assertEquals(List.of(20, 40), manager.getAllSubtasks().stream().map(Task::getId).toList());
+        }
+    }
+
+    @Test
+    void shouldIgnoreTornLastRecord() throws IOException {
+        File file = newFile();
+        Task task;
+        try (MappedTaskManager manager = Managers.getMapped(file)) {
+            task = manager.createTask(new Task("Задача", "Описание"));
+            manager.createTask(new Task("Задача 2", "Описание"));
+        }
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.setLength(raw.length() - 3);
+        }
+
+        try (MappedTaskManager manager = Managers.getMapped(file)) {
+            assertEquals(List.of(task), manager.getAllTasks());
+            manager.createTask(new Task("Задача 3", "Описание"));
+        }
+        try (MappedTaskManager manager = Managers.getMapped(file)) {
+            assertEquals(2, manager.getAllTasks().size());
+        }
+    }
+
+    @Test
+    void shouldNotRewriteEpicWhenSubtasksChange() throws IOException {
+        File file = newFile();
+        int epicId;
+        try (MappedTaskManager manager = Managers.getMapped(file)) {
+            epicId = manager.createEpic(new Epic("Эпик", "Описание")).getId();
+            for (int i = 0; i < 2000; i++) {
+                manager.createSubtask(new Subtask("Сабтаска", "Описание", Duration.ofMinutes(1),
+                        LocalDateTime.of(2030, 9, 4, 0, 0).plusMinutes(i), epicId));
+            }
+        }
+        assertTrue(file.length() < 2000 * 100, "Файл должен расти линейно, а не на весь список подзадач эпика");
+
+        try (MappedTaskManager manager = Managers.getMapped(file)) {
+            Epic epic = manager.getEpic(epicId);
+            assertEquals(2000, epic.getSubtaskIds().size());
+            assertEquals(2000, epic.getDuration());
+            assertEquals(LocalDateTime.of(2030, 9, 4, 0, 0).plusMinutes(2000), epic.getEndTime());
+        }
+    }
+
+    @Test
+    void shouldDropZeroTailLeftByCrash() throws IOException {
+        File file = newFile();
+        try (MappedTaskManager manager = Managers.getMapped(file)) {
+            manager.createTask(new Task("Задача", "Описание"));
+        }
+        long length = file.length();
+        // Отображение больше файла: после сбоя до закрытия за записями остаются нули
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.setLength(length + 4096);
+        }
+
+        try (MappedTaskManager manager = Managers.getMapped(file)) {
+            assertEquals(1, manager.getAllTasks().size());
+            manager.createTask(new Task("Задача 2", "Описание"));
+        }
+        try (MappedTaskManager manager = Managers.getMapped(file)) {
+            assertEquals(2, manager.getAllTasks().size());
+        }
+    }
+
+    @Test
+    void shouldThrowExceptionForForeignFile() throws IOException {
+        File file = File.createTempFile("board", ".csv");
+        file.deleteOnExit();
+        new FileBackedTaskManager(file).createTask(new Task("Задача", "Описание"));
+
+        assertThrows(ManagerLoadException.class, () -> Managers.getMapped(file));
+    }
+}
@@ -0,0 +1,56 @@
+package ru.yandex.practicum;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionHistoryManagerTest {
+
+    @Test
+    void shouldKeepSeparateHistoryForEachSession() {
+        SessionHistoryManager sessions = Managers.getSessionHistory(2);
+        TaskManager manager = new InMemoryTaskManager(sessions);
+        Task first = manager.createTask(new Task("Задача 1", "Описание"));
+        Task second = manager.createTask(new Task("Задача 2", "Описание"));
+        Task third = manager.createTask(new Task("Задача 3", "Описание"));
+
+        sessions.inSession("alice", () -> manager.getTask(first.getId()));
+        sessions.inSession("bob", () -> {
+            manager.getTask(second.getId());
+            manager.getTask(third.getId());
+            return manager.getTask(first.getId());
+        });
+
+        assertEquals(List.of(first), sessions.inSession("alice", manager::getHistory));
+        assertEquals(List.of(third, first), sessions.getHistory("bob"), "История сессии ограничена двумя задачами");
+        assertTrue(manager.getHistory().isEmpty(), "Вне сессии своя история");
+
+        manager.deleteTask(first.getId());
+        assertTrue(sessions.getHistory("alice").isEmpty());
+        assertEquals(List.of(third), sessions.getHistory("bob"));
+
+        sessions.closeSession("bob");
+        assertEquals(1, sessions.sessionCount());
+        assertTrue(sessions.getHistory("bob").isEmpty());
+    }
+
+    // Открытие сессии сверх предела вытесняет ту, к которой дольше всего не обращались
+    @Test
+    void shouldEvictLeastRecentlyUsedSessionOverLimit() {
+        SessionHistoryManager sessions = new SessionHistoryManager(10, 2);
+        TaskManager manager = new InMemoryTaskManager(sessions);
+        Task task = manager.createTask(new Task("Задача", "Описание"));
+
+        sessions.inSession("alice", () -> manager.getTask(task.getId()));
+        sessions.inSession("bob", () -> manager.getTask(task.getId()));
+        sessions.inSession("alice", () -> manager.getTask(task.getId()));
+        sessions.inSession("carol", () -> manager.getTask(task.getId()));
+
+        assertEquals(2, sessions.sessionCount());
+        assertTrue(sessions.getHistory("bob").isEmpty());
+        assertEquals(List.of(task), sessions.getHistory("alice"));
+        assertEquals(List.of(task), sessions.getHistory("carol"));
+    }
+}
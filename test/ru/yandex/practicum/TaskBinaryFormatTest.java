@@ -0,0 +1,158 @@
+package ru.yandex.practicum;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskBinaryFormatTest {
+
+    @Test
+    void shouldReadWhatWasWritten() {
+        Task task = new Task("Задача, срочная", null, Duration.ofMinutes(15),
+                LocalDateTime.of(2030, 8, 1, 10, 0, 30, 123_456_789));
+        task.setId(1);
+        task.setStatus(Status.IN_PROGRESS);
+        Epic epic = new Epic("Эпик", "Описание");
+        epic.setId(300);
+        Subtask subtask = new Subtask("Сабтаска", "Описание", Duration.ofMinutes(5), null, 300);
+        subtask.setId(70_000);
+        subtask.setStatus(Status.DONE);
+
+        List<Task> tasks = TaskBinaryFormat.read(ByteBuffer.wrap(TaskBinaryFormat.write(List.of(task, epic, subtask))));
+
+        assertEquals(3, tasks.size());
+        Task loadedTask = tasks.get(0);
+        assertEquals(1, loadedTask.getId());
+        assertEquals("Задача, срочная", loadedTask.getName());
+        assertNull(loadedTask.getDescription());
+        assertEquals(Status.IN_PROGRESS, loadedTask.getStatus());
+        assertEquals(15, loadedTask.getDuration());
+        assertEquals(task.getStartTime(), loadedTask.getStartTime());
+
+        assertInstanceOf(Epic.class, tasks.get(1));
+        assertEquals(300, tasks.get(1).getId());
+
+        Subtask loadedSubtask = (Subtask) tasks.get(2);
+        assertEquals(70_000, loadedSubtask.getId());
+        assertEquals(300, loadedSubtask.getEpicId());
+        assertEquals(Status.DONE, loadedSubtask.getStatus());
+        assertNull(loadedSubtask.getStartTime());
+    }
+
+    @Test
+    void shouldStoreEqualStringsOnce() {
+        Task first = new Task("Одинаковое название", "Одинаковое описание");
+        first.setId(1);
+        Task second = new Task("Одинаковое название", "Одинаковое описание");
+        second.setId(2);
+
+        int oneTask = TaskBinaryFormat.write(List.of(first)).length;
+        int twoTasks = TaskBinaryFormat.write(List.of(first, second)).length;
+        assertEquals(1 + TaskBinaryFormat.FIXED_RECORD_SIZE, twoTasks - oneTask,
+                "Вторая задача должна добавить только свою запись");
+    }
+
+    @Test
+    void shouldThrowExceptionForUnknownFormatOrVersion() {
+        assertThrows(ManagerLoadException.class, () -> TaskBinaryFormat.read(ByteBuffer.wrap(new byte[]{1, 2, 3})));
+
+        ByteBuffer newerVersion = ByteBuffer.allocate(16);
+        newerVersion.putInt(TaskBinaryFormat.MAGIC).putInt(TaskBinaryFormat.VERSION + 1).putInt(0).putInt(0).flip();
+        assertThrows(ManagerLoadException.class, () -> TaskBinaryFormat.read(newerVersion));
+
+        byte[] truncated = TaskBinaryFormat.write(List.of(new Task("Задача", "Описание")));
+        assertThrows(ManagerLoadException.class,
+                () -> TaskBinaryFormat.read(ByteBuffer.wrap(truncated, 0, truncated.length - 3)));
+    }
+
+    @Test
+    void shouldThrowExceptionForBrokenSizes() {
+        assertThrows(ManagerLoadException.class, () -> TaskBinaryFormat.read(header(-1, 0)));
+        assertThrows(ManagerLoadException.class, () -> TaskBinaryFormat.read(header(Integer.MAX_VALUE, 0)));
+        assertThrows(ManagerLoadException.class, () -> TaskBinaryFormat.read(header(0, -1)));
+        assertThrows(ManagerLoadException.class, () -> TaskBinaryFormat.read(header(0, Integer.MAX_VALUE)));
+
+        // Длина строки -1 в varint
+        ByteBuffer negativeLength = ByteBuffer.allocate(40);
+        negativeLength.put(header(1, 0)).put(new byte[]{-1, -1, -1, -1, 0x0F}).flip();
+        assertThrows(ManagerLoadException.class, () -> TaskBinaryFormat.read(negativeLength));
+
+        ByteBuffer hugeLength = ByteBuffer.allocate(40);
+        hugeLength.put(header(1, 0)).put(new byte[]{-1, -1, -1, -1, 0x07, 'a'}).flip();
+        assertThrows(ManagerLoadException.class, () -> TaskBinaryFormat.read(hugeLength));
+    }
+
+    private static ByteBuffer header(int stringCount, int taskCount) {
+        ByteBuffer buffer = ByteBuffer.allocate(24);
+        buffer.putInt(TaskBinaryFormat.MAGIC).putInt(TaskBinaryFormat.VERSION).putLong(1)
+                .putInt(stringCount).putInt(taskCount).flip();
+        return buffer;
+    }
+
+    @Test
+    void shouldSaveAndLoadBoardInBinaryFile() throws IOException {
+        File file = File.createTempFile("board", TaskBinaryFormat.EXTENSION);
+        file.deleteOnExit();
+        FileBackedTaskManager manager = new FileBackedTaskManager(file);
+        Epic epic = manager.createEpic(new Epic("Эпик", "Описание эпика"));
+        Subtask subtask = manager.createSubtask(new Subtask("Сабтаска", "Описание", Duration.ofMinutes(10),
+                LocalDateTime.of(2030, 8, 2, 9, 0), epic.getId()));
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file);
+        assertEquals(subtask.getStartTime(), loaded.getSubtask(subtask.getId()).getStartTime());
+        assertEquals(List.of(subtask.getId()), loaded.getEpic(epic.getId()).getSubtaskIds());
+        assertEquals(subtask.getStartTime(), loaded.getEpic(epic.getId()).getStartTime());
+    }
+
+    @Test
+    void shouldConvertBetweenCsvAndBinary() throws IOException {
+        File csv = File.createTempFile("board", ".csv");
+        File binary = File.createTempFile("board", TaskBinaryFormat.EXTENSION);
+        File csvAgain = File.createTempFile("board", ".csv");
+        csv.deleteOnExit();
+        binary.deleteOnExit();
+        csvAgain.deleteOnExit();
+
+        FileBackedTaskManager manager = new FileBackedTaskManager(csv);
+        Epic epic = manager.createEpic(new Epic("Эпик", "Описание \"в кавычках\""));
+        manager.createSubtask(new Subtask("Сабтаска", "Описание", Duration.ofMinutes(10),
+                LocalDateTime.of(2030, 8, 3, 9, 0), epic.getId()));
+        manager.createTask(new Task("Задача", "Описание"));
+
+        assertEquals(3, TaskFileConverter.convert(csv, binary));
+        assertEquals(3, TaskFileConverter.convert(binary, csvAgain));
+        assertEquals(Files.readAllLines(csv.toPath()), Files.readAllLines(csvAgain.toPath()));
+    }
+
+    // Задачи, которые есть только в журнале, тоже переносятся
+    @Test
+    void shouldConvertChangesFromJournal() throws IOException {
+        File csv = File.createTempFile("board", ".csv");
+        File binary = File.createTempFile("board", TaskBinaryFormat.EXTENSION);
+        File journal = new TaskJournal(csv).getFile();
+        csv.deleteOnExit();
+        binary.deleteOnExit();
+        journal.deleteOnExit();
+
+        FileBackedTaskManager manager = new FileBackedTaskManager(csv, StorageSettings.journal(100));
+        Epic epic = manager.createEpic(new Epic("Эпик", "Описание"));
+        manager.createSubtask(new Subtask("Сабтаска", "Описание", Duration.ofMinutes(10),
+                LocalDateTime.of(2030, 8, 4, 9, 0), epic.getId()));
+        manager.createTask(new Task("Задача", "Описание"));
+        manager.close();
+        assertTrue(journal.length() > 0);
+
+        assertEquals(3, TaskFileConverter.convert(csv, binary));
+        FileBackedTaskManager converted = FileBackedTaskManager.loadFromFile(binary);
+        assertEquals(1, converted.getAllTasks().size());
+        assertEquals(1, converted.getEpicSubtasks(epic.getId()).size());
+    }
+}
@@ -0,0 +1,106 @@
+package ru.yandex.practicum;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskCsvReaderTest {
+
+    @Test
+    void readAllTaskTypes() {
+        TaskCsvReader reader = new TaskCsvReader(new StringReader(
+                "id,type,name,status,description,duration,startTime,epic\r\n"
+                        + "1,TASK,Задача,IN_PROGRESS,Описание,15,2025-10-19T20:15,\r\n"
+                        + "\r\n"
+                        + "2,EPIC,Эпик,NEW,Описание эпика,0,null,\n"
+                        + "3,SUBTASK,Сабтаска,DONE,Описание сабтаски,5,2025-10-19T20:30:45,2"));
+        reader.readHeader();
+
+        Task task = reader.next();
+        assertEquals(TaskType.TASK, task.getType());
+        assertEquals(1, task.getId());
+        assertEquals("Задача", task.getName());
+        assertEquals(Status.IN_PROGRESS, task.getStatus());
+        assertEquals(15, task.getDuration());
+        assertEquals(LocalDateTime.of(2025, 10, 19, 20, 15), task.getStartTime());
+
+        Task epic = reader.next();
+        assertInstanceOf(Epic.class, epic);
+        assertNull(epic.getStartTime());
+
+        Subtask subtask = (Subtask) reader.next();
+        assertEquals(2, subtask.getEpicId());
+        assertEquals(LocalDateTime.of(2025, 10, 19, 20, 30, 45), subtask.getStartTime());
+
+        assertNull(reader.next());
+    }
+
+    @Test
+    void parseTimeWithFractionOfSecond() {
+        Task task = TaskCsvReader.parse("1,TASK,Задача,NEW,Описание,5,2025-10-19T20:15:30.123456,");
+        assertEquals(LocalDateTime.of(2025, 10, 19, 20, 15, 30, 123_456_000), task.getStartTime());
+    }
+
+    @Test
+    void readQuotedFields() {
+        TaskCsvReader reader = new TaskCsvReader(new StringReader(
+                "id,type,name,status,description,duration,startTime,epic\n"
+                        + "1,TASK,\"Задача, срочная\",NEW,\"Первая строка\n\"\"вторая\"\"\",5,null,\n"
+                        + "2,TASK,\"\",NEW,Описание,5,null,\n"));
+        reader.readHeader();
+
+        Task task = reader.next();
+        assertEquals("Задача, срочная", task.getName());
+        assertEquals("Первая строка\n\"вторая\"", task.getDescription());
+        assertEquals("", reader.next().getName());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void readStrayQuoteInsideFieldAsPlainCharacter() {
+        TaskCsvReader reader = new TaskCsvReader(new StringReader(
+                "id,type,name,status,description,duration,startTime,epic\n"
+                        + "5,TASK,6\" screen,NEW,Монитор,5,null,\n"
+                        + "6,TASK,Задача,NEW,Описание,5,null,\n"));
+        reader.readHeader();
+
+        assertEquals("6\" screen", reader.next().getName());
+        assertEquals(6, reader.next().getId());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void writeOnlyFieldsThatNeedQuotes() {
+        Task task = new Task("Задача, срочная", "Описание \"в кавычках\"");
+        task.setId(1);
+        assertEquals("1,TASK,\"Задача, срочная\",NEW,\"Описание \"\"в кавычках\"\"\",0,null,", task.toString(task));
+        assertEquals("Простое название", Task.escape("Простое название"));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenLineIsBroken() {
+        assertThrows(ManagerLoadException.class, () -> TaskCsvReader.parse("1,TASK,Задача"));
+        assertThrows(ManagerLoadException.class, () -> TaskCsvReader.parse("x,TASK,Задача,NEW,Описание,5,null,"));
+        assertThrows(IllegalArgumentException.class, () -> TaskCsvReader.parse("1,BUG,Задача,NEW,Описание,5,null,"));
+        assertThrows(IllegalArgumentException.class, () -> TaskCsvReader.parse("1,SUBTASK,Задача,NEW,Описание,5,null,"));
+        assertThrows(ManagerLoadException.class, () -> TaskCsvReader.parse("1,TASK,\"Задача\"x,NEW,Описание,5,null,"));
+    }
+
+    // ID вне int и числа вне long не превращаются в другие значения
+    @Test
+    void shouldThrowExceptionWhenNumberOverflows() {
+        assertThrows(ManagerLoadException.class, () -> TaskCsvReader.parse("4294967297,TASK,Задача,NEW,Описание,5,null,"));
+        assertThrows(ManagerLoadException.class,
+                () -> TaskCsvReader.parse("2,SUBTASK,Задача,NEW,Описание,5,null,4294967297"));
+        assertThrows(ManagerLoadException.class,
+                () -> TaskCsvReader.parse("1,TASK,Задача,NEW,Описание,99999999999999999999,null,"));
+        assertThrows(ManagerLoadException.class,
+                () -> TaskCsvReader.parse("1,TASK,Задача,NEW,Описание,9223372036854775807,null,"));
+        assertThrows(ManagerLoadException.class, () -> TaskCsvReader.parse("-,TASK,Задача,NEW,Описание,5,null,"));
+        assertEquals(Integer.MAX_VALUE,
+                TaskCsvReader.parse("2147483647,TASK,Задача,NEW,Описание,5,null,").getId());
+    }
+}
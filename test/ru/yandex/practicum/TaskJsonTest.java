@@ -0,0 +1,98 @@
+package ru.yandex.practicum;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskJsonTest {
+
+    @Test
+    void shouldReadBackAllTasksWrittenByManager() throws IOException {
+        TaskManager manager = Managers.getDefault();
+        manager.createTask(new Task("Задача, \"срочная\"\n\tс переносом", null, Duration.ofMinutes(15),
+                LocalDateTime.of(2030, 12, 5, 10, 0, 30, 120_000_000)));
+        Epic epic = manager.createEpic(new Epic("Эпик 😀 \\ /", "Описание\u0001"));
+        Subtask subtask = new Subtask("Сабтаска", "Описание", Duration.ofMinutes(10),
+                LocalDateTime.of(2030, 12, 5, 11, 0), epic.getId());
+        manager.createSubtask(subtask);
+        subtask.setStatus(Status.DONE);
+        manager.updateSubtask(subtask);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        TaskJsonWriter.writeAll(manager, output);
+
+        List<Task> expected = new ArrayList<>();
+        manager.forEachTask(expected::add);
+        List<Task> loaded = new ArrayList<>();
+        new TaskJsonReader(new ByteArrayInputStream(output.toByteArray())).readArray(null, loaded::add);
+
+        assertEquals(expected.size(), loaded.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Task saved = expected.get(i);
+            Task read = loaded.get(i);
+            assertEquals(saved.getClass(), read.getClass());
+            assertEquals(saved.getId(), read.getId());
+            assertEquals(saved.getName(), read.getName());
+            assertEquals(saved.getDescription(), read.getDescription());
+            // Статус и время эпика вычисляет менеджер, при чтении они не восстанавливаются
+            if (!(saved instanceof Epic)) {
+                assertEquals(saved.getStartTime(), read.getStartTime());
+                assertEquals(saved.getDuration(), read.getDuration());
+                assertEquals(saved.getStatus(), read.getStatus());
+            }
+        }
+        assertEquals(epic.getId(), ((Subtask) loaded.get(2)).getEpicId());
+    }
+
+    @Test
+    void shouldWriteDatesLikeLocalDateTime() {
+        for (LocalDateTime startTime : List.of(LocalDateTime.of(2030, 1, 2, 3, 4),
+                LocalDateTime.of(2030, 1, 2, 3, 4, 5), LocalDateTime.of(2030, 1, 2, 3, 4, 0, 1_000),
+                LocalDateTime.of(2030, 1, 2, 3, 4, 5, 123_456_789), LocalDateTime.of(12030, 1, 2, 3, 4))) {
+            Task task = new Task("Задача", "Описание", Duration.ofMinutes(1), startTime);
+            String json = TaskJson.toJson(task);
+
+            assertTrue(json.contains("\"startTime\":\"" + startTime + "\""), json);
+            assertEquals(startTime, TaskJson.fromJson(json, TaskType.TASK).getStartTime());
+        }
+    }
+
+    @Test
+    void shouldSkipUnknownFieldsAndRejectBrokenJson() {
+        Task task = TaskJson.fromJson("{\"extra\":{\"a\":[1,{\"b\":\"}\"}],\"c\":true}, \"name\" : \"Задача\","
+                + " \"id\":7, \"rate\":-1.5e3, \"startTime\":null}", TaskType.TASK);
+        assertEquals(7, task.getId());
+        assertEquals("Задача", task.getName());
+        assertNull(task.getStartTime());
+
+        assertThrows(IllegalArgumentException.class, () -> TaskJson.fromJson("{\"name\":\"Задача\"", TaskType.TASK));
+        assertThrows(IllegalArgumentException.class, () -> TaskJson.fromJson("{\"id\":99999999999}", TaskType.TASK));
+        assertThrows(IllegalArgumentException.class, () -> TaskJson.fromJson("{\"status\":\"LOST\"}", TaskType.TASK));
+        assertThrows(IllegalArgumentException.class, () -> TaskJson.fromJson("{\"id\":1}", null));
+        assertThrows(IllegalArgumentException.class,
+                () -> TaskJson.fromJson("{\"startTime\":\"2030-02-30T10:00\"}", TaskType.TASK));
+    }
+
+    @Test
+    void shouldEncodeUtf8WithoutIntermediateStrings() throws IOException {
+        String name = "Эпик 😀 ".repeat(100);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        // Маленький буфер, чтобы многобайтные символы попадали на границу сброса
+        try (TaskJsonWriter writer = new TaskJsonWriter(output, 64)) {
+            writer.writeTask(new Epic(name, "ё"));
+        }
+
+        String json = output.toString(StandardCharsets.UTF_8);
+        assertEquals(TaskJson.toJson(new Epic(name, "ё")), json);
+        assertEquals(name, TaskJson.fromJson(json, TaskType.EPIC).getName());
+    }
+}
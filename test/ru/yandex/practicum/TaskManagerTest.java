@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -81,6 +82,32 @@ abstract class TaskManagerTest<T extends TaskManager> {
         assertEquals(newTask, taskManager.getTask(taskId));
     }
 
+    @Test
+    void updateReturnsStoredTaskOrNullForUnknownId() {
+        Epic epic = taskManager.createEpic(new Epic("Эпик", "Описание"));
+        Subtask subtask = taskManager.createSubtask(new Subtask("Сабтаска", "Описание", Duration.ofMinutes(5),
+                getRandomLocalDate(), epic.getId()));
+        Subtask done = new Subtask("Сабтаска", "Готова", Duration.ofMinutes(5), subtask.getStartTime(), epic.getId());
+        done.setId(subtask.getId());
+        done.setStatus(Status.DONE);
+        taskManager.updateSubtask(done);
+
+        Epic renamed = new Epic("Новое имя", "Описание");
+        renamed.setId(epic.getId());
+        Epic updated = taskManager.updateEpic(renamed);
+        assertEquals("Новое имя", updated.getName());
+        assertEquals(Status.DONE, updated.getStatus());
+        assertEquals(List.of(subtask.getId()), updated.getSubtaskIds());
+
+        Task unknown = new Task("Задача", "Описание");
+        unknown.setId(epic.getId());
+        assertNull(taskManager.updateTask(unknown), "ID эпика не должен обновляться как задача");
+        assertNull(taskManager.updateEpic(new Epic("Эпик", "Описание")));
+        Subtask unknownSubtask = new Subtask("Сабтаска", "Описание", Duration.ZERO, null, epic.getId());
+        unknownSubtask.setId(epic.getId() + 100);
+        assertNull(taskManager.updateSubtask(unknownSubtask));
+    }
+
     @Test
     void deleteTaskById() {
         Task task = new Task("Задача", "Описание", Duration.ofMinutes(5), getRandomLocalDate());
@@ -232,6 +259,172 @@ abstract class TaskManagerTest<T extends TaskManager> {
         }, "Создание сабтаски без существующего эпика должно приводить к исключению");
     }
 
+    @Test
+    void shouldThrowExceptionWhenTasksCrossByTime() {
+        Task task = new Task("Задача", "Описание", Duration.ofMinutes(30), LocalDateTime.of(2030, 1, 1, 10, 0));
+        taskManager.createTask(task);
+
+        Task crossTask = new Task("Задача 2", "Описание 2", Duration.ofMinutes(30), LocalDateTime.of(2030, 1, 1, 10, 29));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.createTask(crossTask),
+                "Задача с пересечением по времени не должна создаваться");
+
+        Task nextTask = new Task("Задача 3", "Описание 3", Duration.ofMinutes(30), LocalDateTime.of(2030, 1, 1, 10, 30));
+        assertDoesNotThrow(() -> taskManager.createTask(nextTask), "Задачи встык не пересекаются");
+    }
+
+    @Test
+    void shouldUpdateTaskWithSameTime() {
+        Task task = new Task("Задача", "Описание", Duration.ofMinutes(30), LocalDateTime.of(2030, 1, 1, 10, 0));
+        int taskId = taskManager.createTask(task).getId();
+
+        Task newTask = new Task("Новая задача", "Описание", Duration.ofMinutes(45), LocalDateTime.of(2030, 1, 1, 10, 15));
+        newTask.setId(taskId);
+        taskManager.updateTask(newTask);
+
+        assertEquals(List.of(newTask), taskManager.getOverlappingTasks(
+                LocalDateTime.of(2030, 1, 1, 10, 50), LocalDateTime.of(2030, 1, 1, 11, 0)));
+    }
+
+    @Test
+    void shouldReturnTasksOverlappingInterval() {
+        Epic epic = new Epic("Эпик", "Описание эпика");
+        int epicId = taskManager.createEpic(epic).getId();
+        Task task1 = new Task("Задача 1", "Описание", Duration.ofMinutes(30), LocalDateTime.of(2030, 2, 1, 9, 0));
+        Task task2 = new Task("Задача 2", "Описание", Duration.ofMinutes(30), LocalDateTime.of(2030, 2, 1, 10, 0));
+        Subtask subtask = new Subtask("Сабтаска", "Описание", Duration.ofMinutes(30), LocalDateTime.of(2030, 2, 1, 11, 0), epicId);
+        taskManager.createTask(task1);
+        taskManager.createTask(task2);
+        taskManager.createSubtask(subtask);
+
+        assertEquals(List.of(task1, task2), taskManager.getOverlappingTasks(
+                LocalDateTime.of(2030, 2, 1, 9, 15), LocalDateTime.of(2030, 2, 1, 10, 15)));
+        assertEquals(List.of(task2, subtask), taskManager.getOverlappingTasks(
+                LocalDateTime.of(2030, 2, 1, 10, 0), LocalDateTime.of(2030, 2, 1, 12, 0)));
+        assertTrue(taskManager.getOverlappingTasks(
+                LocalDateTime.of(2030, 2, 1, 9, 30), LocalDateTime.of(2030, 2, 1, 10, 0)).isEmpty());
+
+        taskManager.deleteTask(task2.getId());
+        assertEquals(List.of(subtask), taskManager.getOverlappingTasks(
+                LocalDateTime.of(2030, 2, 1, 10, 0), LocalDateTime.of(2030, 2, 1, 12, 0)));
+    }
+
+    @Test
+    void shouldKeepPrioritizedTasksInStartOrder() {
+        Task task1 = new Task("Задача 1", "Описание", Duration.ofMinutes(30), LocalDateTime.of(2030, 3, 1, 12, 0));
+        Task task2 = new Task("Задача 2", "Описание", Duration.ofMinutes(30), LocalDateTime.of(2030, 3, 1, 9, 0));
+        Task taskWithoutTime = new Task("Задача 3", "Описание");
+        taskManager.createTask(task1);
+        taskManager.createTask(task2);
+        taskManager.createTask(taskWithoutTime);
+
+        Collection<Task> prioritizedTasks = taskManager.getPrioritizedTasks();
+        assertEquals(List.of(task2, task1), new ArrayList<>(prioritizedTasks));
+
+        Task movedTask = new Task("Задача 2", "Описание", Duration.ofMinutes(30), LocalDateTime.of(2030, 3, 1, 15, 0));
+        movedTask.setId(task2.getId());
+        taskManager.updateTask(movedTask);
+        assertEquals(List.of(task1, movedTask), new ArrayList<>(prioritizedTasks),
+                "Список по приоритету должен отражать изменение времени задачи");
+
+        assertThrows(UnsupportedOperationException.class, () -> prioritizedTasks.remove(task1));
+    }
+
+    @Test
+    void shouldKeepPrioritizedTasksWithSameStartTime() {
+        LocalDateTime startTime = LocalDateTime.of(2030, 4, 1, 10, 0);
+        Task milestone1 = new Task("Веха 1", "Описание", Duration.ZERO, startTime);
+        Task milestone2 = new Task("Веха 2", "Описание", Duration.ZERO, startTime);
+        Task task = new Task("Задача", "Описание", Duration.ofMinutes(30), startTime);
+        taskManager.createTask(milestone1);
+        taskManager.createTask(milestone2);
+        taskManager.createTask(task);
+
+        assertEquals(List.of(milestone1, milestone2, task), new ArrayList<>(taskManager.getPrioritizedTasks()),
+                "Задачи с одинаковым началом не должны теряться");
+
+        taskManager.deleteTask(milestone2.getId());
+        assertEquals(List.of(milestone1, task), new ArrayList<>(taskManager.getPrioritizedTasks()));
+    }
+
+    @Test
+    void shouldSetEpicEndTimeToLatestSubtaskEnd() {
+        int epicId = taskManager.createEpic(new Epic("Эпик", "Описание")).getId();
+        LocalDateTime startTime = LocalDateTime.of(2030, 5, 1, 10, 0);
+        Subtask first = taskManager.createSubtask(new Subtask("Сабтаска 1", "Описание", Duration.ofMinutes(30),
+                startTime, epicId));
+        Subtask last = taskManager.createSubtask(new Subtask("Сабтаска 2", "Описание", Duration.ofMinutes(15),
+                startTime.plusHours(5), epicId));
+
+        Epic epic = taskManager.getEpic(epicId);
+        assertEquals(startTime, epic.getStartTime());
+        assertEquals(startTime.plusHours(5).plusMinutes(15), epic.getEndTime(),
+                "Окончание эпика - самое позднее окончание подзадачи, с учётом промежутков");
+        assertEquals(45, epic.getDuration(), "Длительность эпика остаётся суммой длительностей подзадач");
+
+        taskManager.deleteSubtask(last.getId());
+        assertEquals(first.getEndTime(), taskManager.getEpic(epicId).getEndTime());
+
+        taskManager.deleteSubtask(first.getId());
+        assertNull(taskManager.getEpic(epicId).getEndTime());
+    }
+
+    @Test
+    void shouldCountTasksByTypeAndHistoryWithoutViewing() {
+        Epic epic = taskManager.createEpic(new Epic("Эпик", "Описание"));
+        Task task = taskManager.createTask(new Task("Задача", "Описание"));
+        taskManager.createTask(new Task("Задача 2", "Описание"));
+        taskManager.createSubtask(new Subtask("Сабтаска", "Описание", Duration.ZERO, null, epic.getId()));
+        taskManager.getTask(task.getId());
+
+        assertEquals(2, taskManager.getTaskCount(TaskType.TASK));
+        assertEquals(1, taskManager.getTaskCount(TaskType.EPIC));
+        assertEquals(1, taskManager.getTaskCount(TaskType.SUBTASK));
+        assertEquals(1, taskManager.getHistorySize());
+        assertEquals(TaskType.EPIC, taskManager.getTaskType(epic.getId()));
+        assertEquals(1, taskManager.getHistorySize(), "Размеры и тип не должны попадать в историю");
+
+        taskManager.deleteEpic(epic.getId());
+        assertEquals(0, taskManager.getTaskCount(TaskType.SUBTASK));
+        assertNull(taskManager.getTaskType(epic.getId()));
+    }
+
+    @Test
+    void shouldKeepDurationWhenStartTimeChanges() {
+        Task task = new Task("Задача", "Описание");
+        task.setDuration(Duration.ofMinutes(90));
+        LocalDateTime startTime = LocalDateTime.of(2030, 4, 2, 10, 0, 30);
+        task.setStartTime(startTime);
+
+        assertEquals(90, task.getDuration());
+        assertEquals(startTime.plusMinutes(90), task.getEndTime());
+
+        task.setStartTime(null);
+        assertNull(task.getEndTime());
+        assertEquals(90, task.getDuration());
+
+        Task next = new Task("Задача 2", "Описание", Duration.ofMinutes(10), startTime.plusMinutes(90));
+        task.setStartTime(startTime);
+        assertFalse(task.crossTasks(next), "Задача, начинающаяся в момент окончания другой, с ней не пересекается");
+        next.setStartTime(startTime.plusMinutes(89));
+        assertTrue(task.crossTasks(next));
+    }
+
+    @Test
+    void shouldCompareTasksByStartTimeAndId() {
+        LocalDateTime startTime = LocalDateTime.of(2030, 4, 1, 10, 0);
+        Task task1 = new Task("Задача 1", "Описание", Duration.ZERO, startTime);
+        Task task2 = new Task("Задача 2", "Описание", Duration.ZERO, startTime);
+        Task task3 = new Task("Задача 3", "Описание", Duration.ZERO, startTime.minusMinutes(1));
+        task1.setId(1);
+        task2.setId(2);
+        task3.setId(3);
+
+        assertTrue(task1.compareTo(task2) < 0);
+        assertTrue(task2.compareTo(task1) > 0);
+        assertTrue(task3.compareTo(task1) < 0);
+        assertEquals(0, task1.compareTo(task1));
+    }
+
     private LocalDateTime getRandomLocalDate() {
         long startEpochSecond = LocalDateTime.of(2020, 1, 1, 0, 0).atZone(java.time.ZoneOffset.UTC).toEpochSecond();
         long endEpochSecond = LocalDateTime.of(2025, 12, 31, 23, 59).atZone(java.time.ZoneOffset.UTC).toEpochSecond();
@@ -0,0 +1,62 @@
+package ru.yandex.practicum;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeSlotArrayTest {
+
+    // Массив слотов должен отвечать так же, как TaskTimeIndex, на случайных задачах без пересечений
+    @Test
+    void shouldAnswerLikeTaskTimeIndex() {
+        Random random = new Random(7);
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+        TaskTimeIndex index = new TaskTimeIndex();
+        TimeSlotArray slots = new TimeSlotArray();
+
+        for (int id = 1; id <= 2_000; id++) {
+            Task task = new Task("Задача", "Описание", Duration.ofMinutes(random.nextInt(4) * 15),
+                    base.plusMinutes(random.nextInt(20_000)));
+            task.setId(id);
+            long start = task.getStartKey();
+            long end = TaskTimeIndex.toKey(task.getEndTime());
+
+            assertEquals(index.hasOverlap(task), slots.hasOverlap(id, start, end));
+            if (!index.hasOverlap(task)) {
+                index.add(task);
+                slots.add(id, start, end);
+            }
+            if (random.nextInt(10) == 0) {
+                int removed = random.nextInt(id) + 1;
+                index.remove(removed);
+                slots.remove(removed);
+            }
+        }
+
+        assertEquals(index.size(), slots.size());
+        int position = 0;
+        for (Task task : index.tasksView()) {
+            assertEquals(task.getId(), slots.idAt(position++));
+        }
+
+        for (int i = 0; i < 500; i++) {
+            LocalDateTime from = base.plusMinutes(random.nextInt(20_000));
+            LocalDateTime to = from.plusMinutes(random.nextInt(120));
+            int[] expected = index.findOverlapping(from, to).stream().mapToInt(Task::getId).toArray();
+            assertArrayEquals(expected, slots.findOverlapping(TaskTimeIndex.toKey(from), TaskTimeIndex.toKey(to)));
+        }
+    }
+
+    @Test
+    void shouldSortSlotsOnBulkLoad() {
+        TimeSlotArray slots = TimeSlotArray.of(new int[]{3, 1, 2}, new long[]{100, 100, 50}, new long[]{100, 160, 60}, 3);
+        assertEquals(2, slots.idAt(0));
+        assertEquals(1, slots.idAt(1));
+        assertEquals(3, slots.idAt(2));
+        assertTrue(slots.hasOverlap(4, 120, 130));
+    }
+}